@@ -1,6 +1,6 @@
 package frc.robot;
 
-import frc.robot.util.DynamicValue;
+import frc.robot.util.DynamicDouble;
 import frc.robot.util.GenericController.BaseController;
 import frc.robot.util.GenericController.NeutralMode;
 import frc.robot.util.GenericJoystick.Axis;
@@ -33,11 +33,11 @@ public final class Constants {
     public static final class Drive {
 
         static final BaseController MOTOR_TYPE = BaseController.SPARKMAX; // Motor type
-        static final DynamicValue<Double> LM_SPEED_OFFSET = new DynamicValue<>(
+        static final DynamicDouble LM_SPEED_OFFSET = new DynamicDouble(
             "DriveLMOffset",
             1.0
         ); // Value to multiply left motor speed by, used in cases of motor speed mismatch
-        static final DynamicValue<Double> RM_SPEED_OFFSET = new DynamicValue<>(
+        static final DynamicDouble RM_SPEED_OFFSET = new DynamicDouble(
             "DriveRMOffset",
             1.0
         ); // Value to multiply right motor speed by, used in cases of motor speed mismatch
@@ -82,6 +82,33 @@ public final class Constants {
                 static final double IMax = 0.0; // Maximum integral value
                 static final double D = 0.0045;
                 static final double FINISH_TOLERANCE = 0.4; // # of ticks of difference from setpoint to end PID within
+                static final boolean ONBOARD = false; // Whether to run the PID on the motor controllers instead of the robot code (TalonFX doesn't support IMax, only enable after validating on the robot)
+                static final double PERIOD = 0; // Seconds between PID iterations on a dedicated thread (0 to run with the scheduler), when not ONBOARD
+            }
+
+            public static final class Schedule {
+
+                static final boolean ENABLE = false; // Whether to schedule the gains on the intake's position, interpolating from the IntakeHigh gains at Setpoints.HIGH to the IntakeLow gains at Setpoints.LOW
+            }
+
+            public static final class Profile { // TODO: Tune
+
+                static final boolean ENABLE = false; // Whether to follow a trapezoidal motion profile with feedforward, instead of stepping to the setpoint
+                static final double MAX_VELOCITY = 10; // # of ticks per second
+                static final double MAX_ACCELERATION = 20; // # of ticks per second squared
+                static final double KS = 0; // Static feedforward (percent output)
+                static final double KG = 0; // Gravity feedforward (percent output, when horizontal)
+                static final double KV = 0; // Velocity feedforward (percent output per tick per second)
+                static final double RADIANS_PER_TICK = Math.PI / 2 / 4.96; // Radians the intake rotates per tick
+                static final double HORIZONTAL_POSITION = 4.96; // # of ticks at which the intake is horizontal
+            }
+
+            public static final class AutoTune { // Relay auto-tuning of the IntakeLow gains
+
+                static final double AMPLITUDE = 0.15; // Relay output (0-1)
+                static final double HYSTERESIS = 0.05; // # of ticks the error must cross zero by before switching
+                static final int CYCLES = 4; // Number of oscillations to average over
+                static final double TIMEOUT = 10; // Seconds before giving up
             }
 
             public static final class Setpoints { // Right/second motor is used as reference (IRTRM)
@@ -157,6 +184,9 @@ public final class Constants {
 
         public static final class DefaultPID { // TODO: Tune
 
+            static final boolean ONBOARD = false; // Whether to run the PID on the motor controller instead of the robot code (TalonFX doesn't support IMax)
+            static final double PERIOD = 0; // Seconds between PID iterations on a dedicated thread (0 to run with the scheduler), when not ONBOARD
+
             public static final class Low {
 
                 static final double P = 0.06;
@@ -175,6 +205,32 @@ public final class Constants {
             }
         }
 
+        public static final class Schedule {
+
+            static final boolean ENABLE = false; // Whether to schedule the gains on the climber's load (stator current), interpolating from the ClimberHigh gains when unloaded to the ClimberLow gains when lifting the robot
+            // TODO: Tune UNLOADED_CURRENT and LOADED_CURRENT on the robot
+            static final double UNLOADED_CURRENT = 5; // Stator current (amperes) when moving without the robot's weight
+            static final double LOADED_CURRENT = 60; // Stator current (amperes) when lifting the robot
+        }
+
+        public static final class Profile { // TODO: Tune
+
+            static final boolean ENABLE = false; // Whether to follow a trapezoidal motion profile with feedforward, instead of stepping to the setpoint
+            static final double MAX_VELOCITY = 40; // # of ticks per second
+            static final double MAX_ACCELERATION = 80; // # of ticks per second squared
+            static final double KS = 0; // Static feedforward (percent output)
+            static final double KG = 0; // Gravity feedforward (percent output)
+            static final double KV = 0; // Velocity feedforward (percent output per tick per second)
+        }
+
+        public static final class AutoTune { // Relay auto-tuning of the ClimberHigh gains
+
+            static final double AMPLITUDE = 0.2; // Relay output (0-1)
+            static final double HYSTERESIS = 0.5; // # of ticks the error must cross zero by before switching
+            static final int CYCLES = 4; // Number of oscillations to average over
+            static final double TIMEOUT = 15; // Seconds before giving up
+        }
+
         public static final class Setpoints {
 
             static final double LOW = 0;
@@ -182,6 +238,16 @@ public final class Constants {
         }
     }
 
+    public static final class Startup {
+
+        static final int THREADS = 4; // Maximum number of devices to configure at once on startup
+    }
+
+    public static final class Simulation {
+
+        static final boolean MOTORS = true; // Whether to replace every motor controller with an in-memory model when running in simulation
+    }
+
     public static final class Autonomous {
 
         static final double MAX_TEMP = 60; // Maximum temperature (in degrees C) before autonomous stops (-1 to disable)
@@ -202,6 +268,11 @@ public final class Constants {
         static final double SPEED_MOD_2_MULT = 0.75;
     }
 
+    public static final class Logging {
+
+        static final boolean ENABLE = true; // Whether to log motor outputs, PIDs, joysticks, commands & RobotPreferences changes to a DataLog file (on a USB stick if one is plugged in)
+    }
+
     /*
         ! Make sure you know what you're doing before changing these values.
         ! ALWAYS reset them to their original values before committing or running in a competition.
@@ -210,6 +281,6 @@ public final class Constants {
 
         public static final boolean ENABLE = false; // Needs to be enabled to use any debug features (other constants are ignored if this is false)
         static final boolean WIPE_PREFERENCES = false; // Whether to wipe the RobotPreferences on startup
-        public static final boolean DETAILED_SMART_DASHBOARD = false; // Whether to put detailed information on the SmartDashboard (this is performance intensive)
+        public static final boolean DETAILED_SMART_DASHBOARD = false; // Whether to put detailed information on the SmartDashboard (this reads more signals from the motor controllers, but is cheap to publish)
     }
 }
@@ -4,9 +4,20 @@
 
 package frc.robot;
 
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.util.DataLogger;
+import frc.robot.util.DynamicValueRegistry;
+import frc.robot.util.GenericController;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.LoopStats;
+import frc.robot.util.PreferenceWriter;
+import frc.robot.util.TelemetryScheduler;
+import frc.robot.util.TelemetryScheduler.Tier;
 
 /**
  * The VM is configured to automatically run this class, and to call the functions corresponding to
@@ -20,15 +31,36 @@ public class Robot extends TimedRobot {
 
     private RobotContainer m_robotContainer;
 
+    // Sections of robotPeriodic() outside of the CommandScheduler, whose subsystems & commands are timed themselves
+    private final LoopProfiler.Section m_refreshSignalsSection =
+        LoopProfiler.section("GenericController.refreshSignals()");
+    private final LoopProfiler.Section m_telemetrySection =
+        LoopProfiler.section("Telemetry");
+
     /**
      * This function is run when the robot is first started up and should be used for any
      * initialization code.
      */
     @Override
     public void robotInit() {
+        // Started first, so everything created after it can log from its first loop
+        if (Constants.Logging.ENABLE) DataLogger.start();
+        // Times every command the CommandScheduler runs, alongside the subsystems & sections below
+        LoopProfiler.profileCommands();
+        // Must be set before any motor controllers are created, so they're all simulated
+        GenericController.setSimulated(
+            RobotBase.isSimulation() && Constants.Simulation.MOTORS
+        );
+        // Must be loaded before any dynamic values are created, so they all pick up their snapshot values
+        DynamicValueRegistry.loadSnapshot();
         // Instantiate our RobotContainer.  This will perform all our button bindings, and put our
         // autonomous chooser on the dashboard.
         m_robotContainer = new RobotContainer();
+        TelemetryScheduler.add(
+            "Skipped Motor Writes",
+            Tier.NORMAL,
+            GenericController::getTotalSkippedWrites
+        );
     }
 
     /**
@@ -40,16 +72,30 @@ public class Robot extends TimedRobot {
      */
     @Override
     public void robotPeriodic() {
+        LoopProfiler.beginLoop();
+        // Refresh all batched motor signals at once, so subsystems & commands read cached values without blocking.
+        m_refreshSignalsSection.start();
+        GenericController.refreshSignals();
+        m_refreshSignalsSection.stop();
         // Runs the Scheduler.  This is responsible for polling buttons, adding newly-scheduled
         // commands, running already-scheduled commands, removing finished or interrupted commands,
         // and running subsystem periodic() methods.  This must be called from the robot's periodic
         // block in order for anything in the Command-based framework to work.
         CommandScheduler.getInstance().run();
+
+        m_telemetrySection.start();
+        LoopStats.publishAll(Timer.getFPGATimestamp());
+        TelemetryScheduler.run();
+        m_telemetrySection.stop();
+        LoopProfiler.endLoop(Timer.getFPGATimestamp());
     }
 
     /** This function is called once each time the robot enters Disabled mode. */
     @Override
-    public void disabledInit() {}
+    public void disabledInit() {
+        // Make sure any tuning done while enabled is written to RobotPreferences
+        PreferenceWriter.flush();
+    }
 
     @Override
     public void disabledPeriodic() {}
@@ -93,4 +139,10 @@ public class Robot extends TimedRobot {
     /** This function is called periodically during test mode. */
     @Override
     public void testPeriodic() {}
+
+    /** This function is called periodically while running in simulation. */
+    @Override
+    public void simulationPeriodic() {
+        GenericController.stepSimulation(getPeriod());
+    }
 }
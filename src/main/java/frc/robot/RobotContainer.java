@@ -4,6 +4,8 @@
 
 package frc.robot;
 
+import edu.wpi.first.math.controller.ArmFeedforward;
+import edu.wpi.first.math.controller.ElevatorFeedforward;
 import edu.wpi.first.wpilibj.Preferences;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
@@ -11,8 +13,12 @@ import edu.wpi.first.wpilibj2.command.*;
 import frc.robot.commands.*;
 import frc.robot.commands.factories.*;
 import frc.robot.subsystems.*;
-import frc.robot.util.DynamicValue;
+import frc.robot.util.DynamicDouble;
+import frc.robot.util.DynamicValueRegistry;
+import frc.robot.util.GainSchedule;
+import frc.robot.util.GenericController;
 import frc.robot.util.GenericJoystick;
+import frc.robot.util.StartupOrchestrator;
 
 public class RobotContainer {
 
@@ -27,95 +33,127 @@ public class RobotContainer {
     private final CameraSubsystem camera;
 
     {
+        // Subsystems are built on the main thread (they register with the CommandScheduler), while their motors'
+        // configurations are collected and only sent to the devices afterwards, concurrently.
+        StartupOrchestrator startup = new StartupOrchestrator(
+            Constants.Startup.THREADS
+        );
         drive =
-            DriveSubsystem
-                .create()
-                .invert(Constants.Drive.LM_INVERSE, Constants.Drive.RM_INVERSE)
-                .setOffset(
-                    Constants.Drive.LM_SPEED_OFFSET,
-                    Constants.Drive.RM_SPEED_OFFSET
-                )
-                .setBrakeThreshold(Constants.Drive.BRAKE_THRESHOLD)
-                .setSupplyLimit(
-                    Constants.Drive.CurrentLimit.SUPPLY,
-                    Constants.Drive.CurrentLimit.SUPPLY_LIMIT,
-                    Constants.Drive.CurrentLimit.SUPPLY_TRIGGER,
-                    Constants.Drive.CurrentLimit.SUPPLY_TRIGGER_TIME
-                )
-                .setStatorLimit(
-                    Constants.Drive.CurrentLimit.STATOR,
-                    Constants.Drive.CurrentLimit.STATOR_LIMIT
-                )
-                .setMaxTemp(Constants.Autonomous.MAX_TEMP)
-                .addLeftMotors(
-                    Constants.Drive.MOTOR_TYPE,
-                    Constants.ID.LM1,
-                    Constants.ID.LM2
-                )
-                .addRightMotors(
-                    Constants.Drive.MOTOR_TYPE,
-                    Constants.ID.RM1,
-                    Constants.ID.RM2
-                );
+            startup.time(
+                "Drive",
+                () ->
+                    DriveSubsystem
+                        .create()
+                        .invert(
+                            Constants.Drive.LM_INVERSE,
+                            Constants.Drive.RM_INVERSE
+                        )
+                        .setOffset(
+                            Constants.Drive.LM_SPEED_OFFSET,
+                            Constants.Drive.RM_SPEED_OFFSET
+                        )
+                        .setBrakeThreshold(Constants.Drive.BRAKE_THRESHOLD)
+                        .setSupplyLimit(
+                            Constants.Drive.CurrentLimit.SUPPLY,
+                            Constants.Drive.CurrentLimit.SUPPLY_LIMIT,
+                            Constants.Drive.CurrentLimit.SUPPLY_TRIGGER,
+                            Constants.Drive.CurrentLimit.SUPPLY_TRIGGER_TIME
+                        )
+                        .setStatorLimit(
+                            Constants.Drive.CurrentLimit.STATOR,
+                            Constants.Drive.CurrentLimit.STATOR_LIMIT
+                        )
+                        .setMaxTemp(Constants.Autonomous.MAX_TEMP)
+                        .addLeftMotors(
+                            Constants.Drive.MOTOR_TYPE,
+                            Constants.ID.LM1,
+                            Constants.ID.LM2
+                        )
+                        .addRightMotors(
+                            Constants.Drive.MOTOR_TYPE,
+                            Constants.ID.RM1,
+                            Constants.ID.RM2
+                        )
+            );
         intakeRotation =
-            IntakeSubsystems.RotationSubsystem
-                .create(
-                    Constants.Intake.Rotation.MOTOR_TYPE,
-                    Constants.ID.IRTLM,
-                    Constants.Intake.Rotation.LM_INVERSE,
-                    Constants.ID.IRTRM,
-                    Constants.Intake.Rotation.RM_INVERSE
-                )
-                .setNeutralMode(Constants.Intake.Rotation.NEUTRAL_MODE)
-                .setSupplyLimit(
-                    Constants.Intake.Rotation.CurrentLimit.SUPPLY,
-                    Constants.Intake.Rotation.CurrentLimit.SUPPLY_LIMIT,
-                    Constants.Intake.Rotation.CurrentLimit.SUPPLY_TRIGGER,
-                    Constants.Intake.Rotation.CurrentLimit.SUPPLY_TRIGGER_TIME
-                )
-                .setStatorLimit(
-                    Constants.Intake.Rotation.CurrentLimit.STATOR,
-                    Constants.Intake.Rotation.CurrentLimit.STATOR_LIMIT
-                );
+            startup.time(
+                "Intake Rotation",
+                () ->
+                    IntakeSubsystems.RotationSubsystem
+                        .create(
+                            Constants.Intake.Rotation.MOTOR_TYPE,
+                            Constants.ID.IRTLM,
+                            Constants.Intake.Rotation.LM_INVERSE,
+                            Constants.ID.IRTRM,
+                            Constants.Intake.Rotation.RM_INVERSE
+                        )
+                        .setNeutralMode(Constants.Intake.Rotation.NEUTRAL_MODE)
+                        .setSupplyLimit(
+                            Constants.Intake.Rotation.CurrentLimit.SUPPLY,
+                            Constants.Intake.Rotation.CurrentLimit.SUPPLY_LIMIT,
+                            Constants.Intake.Rotation.CurrentLimit.SUPPLY_TRIGGER,
+                            Constants.Intake.Rotation.CurrentLimit.SUPPLY_TRIGGER_TIME
+                        )
+                        .setStatorLimit(
+                            Constants.Intake.Rotation.CurrentLimit.STATOR,
+                            Constants.Intake.Rotation.CurrentLimit.STATOR_LIMIT
+                        )
+            );
         intakeFeeder =
-            new IntakeSubsystems.FeederSubsystem(
-                Constants.Intake.Feeder.MOTOR_TYPE,
-                Constants.ID.IF,
-                Constants.Intake.Feeder.INVERSE
+            startup.time(
+                "Intake Feeder",
+                () ->
+                    new IntakeSubsystems.FeederSubsystem(
+                        Constants.Intake.Feeder.MOTOR_TYPE,
+                        Constants.ID.IF,
+                        Constants.Intake.Feeder.INVERSE
+                    )
             );
         outtake =
-            new OuttakeSubsystem(
-                Constants.Outtake.FLYWHEEL_MOTOR_TYPE,
-                Constants.ID.OFLM,
-                Constants.Outtake.FLYWHEEL_LM_INVERSE,
-                Constants.ID.OFRM,
-                Constants.Outtake.FLYWHEEL_RM_INVERSE
-            )
-                .setSupplyLimit(
-                    Constants.Outtake.CurrentLimit.SUPPLY,
-                    Constants.Outtake.CurrentLimit.SUPPLY_LIMIT,
-                    Constants.Outtake.CurrentLimit.SUPPLY_TRIGGER,
-                    Constants.Outtake.CurrentLimit.SUPPLY_TRIGGER_TIME
-                );
+            startup.time(
+                "Outtake",
+                () ->
+                    new OuttakeSubsystem(
+                        Constants.Outtake.FLYWHEEL_MOTOR_TYPE,
+                        Constants.ID.OFLM,
+                        Constants.Outtake.FLYWHEEL_LM_INVERSE,
+                        Constants.ID.OFRM,
+                        Constants.Outtake.FLYWHEEL_RM_INVERSE
+                    )
+                        .setSupplyLimit(
+                            Constants.Outtake.CurrentLimit.SUPPLY,
+                            Constants.Outtake.CurrentLimit.SUPPLY_LIMIT,
+                            Constants.Outtake.CurrentLimit.SUPPLY_TRIGGER,
+                            Constants.Outtake.CurrentLimit.SUPPLY_TRIGGER_TIME
+                        )
+            );
         climber =
-            ClimberSubsystem
-                .create(
-                    Constants.Climber.MOTOR_TYPE,
-                    Constants.ID.CL,
-                    Constants.Climber.INVERSE
-                )
-                .setSupplyLimit(
-                    Constants.Climber.CurrentLimit.SUPPLY,
-                    Constants.Climber.CurrentLimit.SUPPLY_LIMIT,
-                    Constants.Climber.CurrentLimit.SUPPLY_TRIGGER,
-                    Constants.Climber.CurrentLimit.SUPPLY_TRIGGER_TIME
-                )
-                .setStatorLimit(
-                    Constants.Climber.CurrentLimit.STATOR,
-                    Constants.Climber.CurrentLimit.STATOR_LIMIT
-                )
-                .setNeutralMode(Constants.Climber.NEUTRAL_MODE);
-        camera = new CameraSubsystem();
+            startup.time(
+                "Climber",
+                () ->
+                    ClimberSubsystem
+                        .create(
+                            Constants.Climber.MOTOR_TYPE,
+                            Constants.ID.CL,
+                            Constants.Climber.INVERSE
+                        )
+                        .setSupplyLimit(
+                            Constants.Climber.CurrentLimit.SUPPLY,
+                            Constants.Climber.CurrentLimit.SUPPLY_LIMIT,
+                            Constants.Climber.CurrentLimit.SUPPLY_TRIGGER,
+                            Constants.Climber.CurrentLimit.SUPPLY_TRIGGER_TIME
+                        )
+                        .setStatorLimit(
+                            Constants.Climber.CurrentLimit.STATOR,
+                            Constants.Climber.CurrentLimit.STATOR_LIMIT
+                        )
+                        .setNeutralMode(Constants.Climber.NEUTRAL_MODE)
+                        .setLoadScheduled(Constants.Climber.Schedule.ENABLE)
+            );
+        camera = startup.time("Camera", CameraSubsystem::new);
+        // Send each motor's collected configuration in one go, with independent devices configured concurrently
+        GenericController.commitAllConfigs(startup);
+        startup.join();
     }
 
     // ! CONTROLS
@@ -139,7 +177,7 @@ public class RobotContainer {
                 "IntakeLow",
                 intakeRotation,
                 Constants.Intake.Rotation.Setpoints.LOW,
-                new DynamicValue<>(
+                new DynamicDouble(
                     "IntakeLowTolerance",
                     Constants.Intake.Rotation.DefaultPID.FINISH_TOLERANCE
                 ),
@@ -147,13 +185,15 @@ public class RobotContainer {
                 Constants.Intake.Rotation.DefaultPID.I,
                 Constants.Intake.Rotation.DefaultPID.D,
                 Constants.Intake.Rotation.DefaultPID.IMax
-            );
+            )
+                .setOnboard(Constants.Intake.Rotation.DefaultPID.ONBOARD)
+                .setPeriod(Constants.Intake.Rotation.DefaultPID.PERIOD);
         rotationHighPID =
             new RotationPIDFactory(
                 "IntakeHigh",
                 intakeRotation,
                 Constants.Intake.Rotation.Setpoints.HIGH,
-                new DynamicValue<>(
+                new DynamicDouble(
                     "IntakeHighTolerance",
                     Constants.Intake.Rotation.DefaultPID.FINISH_TOLERANCE
                 ),
@@ -161,7 +201,9 @@ public class RobotContainer {
                 Constants.Intake.Rotation.DefaultPID.I,
                 Constants.Intake.Rotation.DefaultPID.D,
                 Constants.Intake.Rotation.DefaultPID.IMax
-            );
+            )
+                .setOnboard(Constants.Intake.Rotation.DefaultPID.ONBOARD)
+                .setPeriod(Constants.Intake.Rotation.DefaultPID.PERIOD);
         climberLowPID =
             new ClimberPIDFactory(
                 "ClimberLow",
@@ -171,14 +213,16 @@ public class RobotContainer {
                 Constants.Climber.DefaultPID.Low.I,
                 Constants.Climber.DefaultPID.Low.D,
                 Constants.Climber.DefaultPID.Low.IMax
-            );
+            )
+                .setOnboard(Constants.Climber.DefaultPID.ONBOARD)
+                .setPeriod(Constants.Climber.DefaultPID.PERIOD);
 
         climberHighPID =
             new ClimberPIDFactory(
                 "ClimberHigh",
                 climber,
                 Constants.Climber.Setpoints.HIGH,
-                new DynamicValue<>(
+                new DynamicDouble(
                     "ClimberHighTolerance",
                     Constants.Climber.DefaultPID.High.FINISH_TOLERANCE
                 ),
@@ -186,7 +230,91 @@ public class RobotContainer {
                 Constants.Climber.DefaultPID.High.I,
                 Constants.Climber.DefaultPID.High.D,
                 Constants.Climber.DefaultPID.High.IMax
+            )
+                .setOnboard(Constants.Climber.DefaultPID.ONBOARD)
+                .setPeriod(Constants.Climber.DefaultPID.PERIOD);
+
+        if (Constants.Intake.Rotation.Schedule.ENABLE) {
+            final GainSchedule schedule = new GainSchedule(
+                intakeRotation::getPosition
+            )
+                .addPoint(
+                    Constants.Intake.Rotation.Setpoints.HIGH,
+                    rotationHighPID.getGains()
+                )
+                .addPoint(
+                    Constants.Intake.Rotation.Setpoints.LOW,
+                    rotationLowPID.getGains()
+                );
+            rotationLowPID.setGainSchedule(schedule);
+            rotationHighPID.setGainSchedule(schedule);
+        }
+        if (Constants.Climber.Schedule.ENABLE) {
+            final GainSchedule schedule = new GainSchedule(
+                climber::getStatorCurrent
+            )
+                .addPoint(
+                    Constants.Climber.Schedule.UNLOADED_CURRENT,
+                    climberHighPID.getGains()
+                )
+                .addPoint(
+                    Constants.Climber.Schedule.LOADED_CURRENT,
+                    climberLowPID.getGains()
+                );
+            climberLowPID.setGainSchedule(schedule);
+            climberHighPID.setGainSchedule(schedule);
+        }
+        if (Constants.Intake.Rotation.Profile.ENABLE) {
+            // Shared between both setpoints, so tuning the limits applies to every move
+            final DynamicDouble maxVelocity = new DynamicDouble(
+                "IntakeMaxVelocity",
+                Constants.Intake.Rotation.Profile.MAX_VELOCITY
+            );
+            final DynamicDouble maxAcceleration = new DynamicDouble(
+                "IntakeMaxAcceleration",
+                Constants.Intake.Rotation.Profile.MAX_ACCELERATION
+            );
+            final ArmFeedforward feedforward = new ArmFeedforward(
+                Constants.Intake.Rotation.Profile.KS,
+                Constants.Intake.Rotation.Profile.KG,
+                Constants.Intake.Rotation.Profile.KV
+            );
+            rotationLowPID.setProfile(
+                maxVelocity,
+                maxAcceleration,
+                feedforward,
+                Constants.Intake.Rotation.Profile.RADIANS_PER_TICK,
+                Constants.Intake.Rotation.Profile.HORIZONTAL_POSITION
+            );
+            rotationHighPID.setProfile(
+                maxVelocity,
+                maxAcceleration,
+                feedforward,
+                Constants.Intake.Rotation.Profile.RADIANS_PER_TICK,
+                Constants.Intake.Rotation.Profile.HORIZONTAL_POSITION
             );
+        }
+        if (Constants.Climber.Profile.ENABLE) {
+            final DynamicDouble maxVelocity = new DynamicDouble(
+                "ClimberMaxVelocity",
+                Constants.Climber.Profile.MAX_VELOCITY
+            );
+            final DynamicDouble maxAcceleration = new DynamicDouble(
+                "ClimberMaxAcceleration",
+                Constants.Climber.Profile.MAX_ACCELERATION
+            );
+            final ElevatorFeedforward feedforward = new ElevatorFeedforward(
+                Constants.Climber.Profile.KS,
+                Constants.Climber.Profile.KG,
+                Constants.Climber.Profile.KV
+            );
+            climberLowPID.setProfile(maxVelocity, maxAcceleration, feedforward);
+            climberHighPID.setProfile(
+                maxVelocity,
+                maxAcceleration,
+                feedforward
+            );
+        }
 
         teleopDrive =
             new TeleopDrive(
@@ -222,7 +350,35 @@ public class RobotContainer {
             );
             zeroClimberPosCmd.setName("ZeroClimberPos");
             SmartDashboard.putData(zeroClimberPosCmd);
+            Command autoTuneClimberCmd = new RelayAutoTune(
+                climberHighPID.get(),
+                Constants.Climber.AutoTune.AMPLITUDE,
+                Constants.Climber.AutoTune.HYSTERESIS,
+                Constants.Climber.AutoTune.CYCLES,
+                Constants.Climber.AutoTune.TIMEOUT
+            );
+            autoTuneClimberCmd.setName("AutoTuneClimber");
+            SmartDashboard.putData(autoTuneClimberCmd);
         }
+        Command autoTuneRotationCmd = new RelayAutoTune(
+            rotationLowPID.get(),
+            Constants.Intake.Rotation.AutoTune.AMPLITUDE,
+            Constants.Intake.Rotation.AutoTune.HYSTERESIS,
+            Constants.Intake.Rotation.AutoTune.CYCLES,
+            Constants.Intake.Rotation.AutoTune.TIMEOUT
+        );
+        autoTuneRotationCmd.setName("AutoTuneRotation");
+        SmartDashboard.putData(autoTuneRotationCmd);
+        Command exportTuningCmd = Commands
+            .runOnce(DynamicValueRegistry::exportSnapshot)
+            .ignoringDisable(true);
+        exportTuningCmd.setName("ExportTuning");
+        SmartDashboard.putData(exportTuningCmd);
+        Command importTuningCmd = Commands
+            .runOnce(DynamicValueRegistry::importSnapshot)
+            .ignoringDisable(true);
+        importTuningCmd.setName("ImportTuning");
+        SmartDashboard.putData(importTuningCmd);
 
         // ! BUTTONS
         configureButtonBindings();
@@ -233,7 +389,7 @@ public class RobotContainer {
         // ! CONFIGURATION
         intakeRotation.setPositions(0); // ! INTAKE IS EXPECTED TO BE IN HIGH AT STARTUP
         if (Constants.Climber.ENABLE) climber.setPosition(0); // ! CLIMBER IS EXPECTED TO BE IN LOW AT STARTUP
-        DynamicValue<Double> autoLeaveTime = new DynamicValue<>( // Allow for on-the-fly auto leave time adjustment
+        DynamicDouble autoLeaveTime = new DynamicDouble( // Allow for on-the-fly auto leave time adjustment
             "Auto Leave Time",
             Constants.Autonomous.DEFAULT_COMM_LEAVE_TIME
         );
@@ -404,10 +560,10 @@ public class RobotContainer {
 
         controller
             .getTrigger(Constants.Intake.Rotation.OVERRIDE_LOW_TRG)
-            .onTrue(rotationLowPID.create());
+            .onTrue(rotationLowPID.get());
         controller
             .getTrigger(Constants.Intake.Rotation.OVERRIDE_HIGH_TRG)
-            .onTrue(rotationHighPID.create());
+            .onTrue(rotationHighPID.get());
         controller
             .getTrigger(Constants.Intake.Rotation.OVERRIDE_FWD_TRG)
             .whileTrue(
@@ -492,10 +648,10 @@ public class RobotContainer {
         if (Constants.Climber.ENABLE) {
             controller
                 .getTrigger(Constants.Climber.LOW_TRG)
-                .onTrue(climberLowPID.create());
+                .onTrue(climberLowPID.get());
             controller
                 .getTrigger(Constants.Climber.HIGH_TRG)
-                .onTrue(climberHighPID.create());
+                .onTrue(climberHighPID.get());
         }
     }
 
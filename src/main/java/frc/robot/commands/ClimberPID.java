@@ -1,84 +1,113 @@
 package frc.robot.commands;
 
 import frc.robot.subsystems.ClimberSubsystem;
-import frc.robot.util.DynamicValue;
+import frc.robot.util.DynamicDouble;
+import frc.robot.util.DynamicPIDGains;
+import frc.robot.util.PIDGains;
 
 public class ClimberPID extends GenericPID {
 
-    DynamicValue<Double> tolerance;
-    boolean canEnd;
+    final ClimberSubsystem climber;
+    final double target;
+    DynamicDouble tolerance;
+    boolean canEnd, onboard = false;
 
     /** Create a new ClimberPID command.
      * <p>
-     *     ! This command will not end, use {@link #ClimberPID(String, ClimberSubsystem, double, DynamicValue, double, double, double, double)} if you want the command to end.
+     *     ! This command will not end, use {@link #ClimberPID(String, ClimberSubsystem, double, DynamicDouble, DynamicPIDGains)} if you want the command to end.
      * </p>
-     * @param name The name of the PID command, used for RobotPreferences values. Use the same name for all commands that should share the same preferences.
+     * @param name The name of the PID command
      * @param climber The climber subsystem
      * @param target The target position
-     * @param defaultP The default P value
-     * @param defaultI The default I value
-     * @param defaultD The default D value
-     * @param defaultIMax The default I max value (the maximum value of the integral term)
+     * @param gains The gains to use, which can be shared between commands
      */
     public ClimberPID(
         String name,
         ClimberSubsystem climber,
         double target,
-        double defaultP,
-        double defaultI,
-        double defaultD,
-        double defaultIMax
+        DynamicPIDGains gains
     ) {
         super(
             name,
-            defaultP,
-            defaultI,
-            defaultD,
-            defaultIMax,
+            gains,
             () -> target - climber.getPosition(),
             climber::setMotor
         );
+        setRealtimeError(() -> target - climber.getRealtimePosition());
         addRequirements(climber);
+        this.climber = climber;
+        this.target = target;
         canEnd = false;
     }
 
     /** Create a new ClimberPID command. This command will end once the error is within the targetTolerance.
      * <p>This command will end once the error is within the targetTolerance.</p>
-     * @param name The name of the PID command, used for RobotPreferences values. Use the same name for all commands that should share the same preferences.
+     * @param name The name of the PID command
      * @param climber The climber subsystem
      * @param target The target position
      * @param targetTolerance The tolerance for the target position
-     * @param defaultP The default P value
-     * @param defaultI The default I value
-     * @param defaultD The default D value
-     * @param defaultIMax The default I max value (the maximum value of the integral term)
+     * @param gains The gains to use, which can be shared between commands
      */
     public ClimberPID(
         String name,
         ClimberSubsystem climber,
         double target,
-        DynamicValue<Double> targetTolerance,
-        double defaultP,
-        double defaultI,
-        double defaultD,
-        double defaultIMax
+        DynamicDouble targetTolerance,
+        DynamicPIDGains gains
     ) {
         super(
             name,
-            defaultP,
-            defaultI,
-            defaultD,
-            defaultIMax,
+            gains,
             () -> target - climber.getPosition(),
             climber::setMotor
         );
+        setRealtimeError(() -> target - climber.getRealtimePosition());
         addRequirements(climber);
+        this.climber = climber;
+        this.target = target;
         tolerance = targetTolerance;
         canEnd = true;
     }
 
+    /** Set whether the PID runs on the motor controller (at its own loop rate) instead of in this command.
+     * The same RobotPreferences gains are used either way, and are sent to the motor controller whenever they change.
+     * @param onboard Whether to run the PID on the motor controller
+     * @return The ClimberPID, for chaining
+     */
+    public ClimberPID setOnboard(boolean onboard) {
+        this.onboard = onboard;
+        return this;
+    }
+
+    @Override
+    public void execute() {
+        if (!onboard) {
+            super.execute();
+            return;
+        }
+        final PIDGains gains = this.gains.get();
+        if (gainsChanged(gains)) climber.setPID(
+            gains.p,
+            gains.i,
+            gains.d,
+            gains.iMax
+        );
+        climber.setTargetPosition(target);
+    }
+
+    @Override
+    public ClimberPID setPeriod(double period) {
+        super.setPeriod(period);
+        return this;
+    }
+
+    @Override
+    protected boolean useNotifier() {
+        return !onboard && super.useNotifier();
+    }
+
     @Override
     public boolean isFinished() {
-        return canEnd && Math.abs(getError.getAsDouble()) < tolerance.get();
+        return canEnd && Math.abs(getLatestError()) < tolerance.getAsDouble();
     }
 }
@@ -3,12 +3,12 @@ package frc.robot.commands;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.subsystems.DriveSubsystem;
-import frc.robot.util.DynamicValue;
+import frc.robot.util.DynamicDouble;
 
 public class DriveForTime extends Command {
 
     DriveSubsystem drive;
-    DynamicValue<Double> time;
+    DynamicDouble time;
     double speed, startTime;
 
     /**
@@ -22,7 +22,7 @@ public class DriveForTime extends Command {
     public DriveForTime(
         DriveSubsystem drive,
         double speed,
-        DynamicValue<Double> time
+        DynamicDouble time
     ) {
         addRequirements(drive);
         this.drive = drive;
@@ -39,7 +39,7 @@ public class DriveForTime extends Command {
      * @param time    The time to drive for (in seconds)
      */
     public DriveForTime(DriveSubsystem drive, double speed, double time) {
-        this(drive, speed, new DynamicValue<>(time));
+        this(drive, speed, new DynamicDouble(time));
     }
 
     @Override
@@ -60,6 +60,6 @@ public class DriveForTime extends Command {
 
     @Override
     public boolean isFinished() {
-        return Timer.getFPGATimestamp() - startTime >= time.get();
+        return Timer.getFPGATimestamp() - startTime >= time.getAsDouble();
     }
 }
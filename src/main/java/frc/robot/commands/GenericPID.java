@@ -1,8 +1,16 @@
 package frc.robot.commands;
 
-import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
-import frc.robot.util.DynamicValue;
+import frc.robot.util.Clock;
+import frc.robot.util.DataLogger;
+import frc.robot.util.DynamicDouble;
+import frc.robot.util.DynamicPIDGains;
+import frc.robot.util.GainSchedule;
+import frc.robot.util.LoopStats;
+import frc.robot.util.PIDCore;
+import frc.robot.util.PIDGains;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
 
@@ -10,14 +18,60 @@ import java.util.function.DoubleSupplier;
  * A generic PID command, that can be used directly for basic PID control, or subclassed for more complex control.
  * <p>
  * WPILib offers {@link edu.wpi.first.wpilibj2.command.PIDCommand}, which you may want to consider as an alternative.
+ * <p>
+ * By default, the PID runs with the CommandScheduler (every 20ms). {@link #setPeriod(double)} can instead run it on its
+ * own {@link Notifier} thread at a faster rate, while the command lifecycle stays on the main thread.
+ * <p>
+ * Every iteration is recorded in the {@link LoopStats} for the PID's name, so loop timing problems can be seen on
+ * SmartDashboard. Time to settle is recorded when the command finishes without being interrupted. The error & output
+ * of every iteration are also logged by the {@link DataLogger}.
+ * <p>
+ * {@link #setGainSchedule(GainSchedule)} can vary the gains with the measurement, setpoint, or load, so a single
+ * command can cover a whole range of motion.
  */
 public class GenericPID extends Command {
 
-    protected final DynamicValue<Double> p, i, d, iMax;
+    protected final DynamicPIDGains gains;
     protected final DoubleSupplier getError;
     protected final DoubleConsumer useOutput;
     protected final String name;
-    protected double errorSum, lastRunTime, lastError;
+    protected PIDCore core = new PIDCore(Clock.FPGA);
+    private Clock clock = Clock.FPGA;
+    private final LoopStats stats;
+    private final int errorEntry, outputEntry; // DataLogger entries, shared by every PID with the same name
+    private double startTime;
+    private long sentVersion = -1; // Version of the gains last sent to an on-device PID, see gainsChanged()
+    private double period = 0; // Period of the Notifier loop in seconds, 0 to run with the CommandScheduler
+    private GainSchedule schedule; // null to always use the gains
+    private Notifier notifier; // Created on first use
+    private final Object notifierLock = new Object(); // Stops the Notifier loop from running while the command ends
+    private volatile boolean notifierRunning = false;
+    private volatile double latestError = Double.NaN; // Error of the last calculation, published for the main thread
+    private DoubleSupplier getRealtimeError; // null to use getError on the Notifier thread too
+
+    /** Create a new GenericPID command.
+     * @param name The name of the PID command
+     * @param gains The gains to use, which can be shared between commands
+     * @param getError A function that returns the error to be used for PID
+     * @param useOutput A function that uses the output of the PID (usually to set motor speeds)
+     */
+    public GenericPID(
+        String name,
+        DynamicPIDGains gains,
+        DoubleSupplier getError,
+        DoubleConsumer useOutput
+    ) {
+        this.setName(this.getClass().getSimpleName() + " - " + name);
+        this.name = name;
+        this.gains = gains;
+        this.getError = getError;
+        this.useOutput = useOutput;
+        this.stats = LoopStats.get(name);
+        this.errorEntry =
+            DataLogger.entry("PID/" + name + "/Error", DataLogger.Type.DOUBLE);
+        this.outputEntry =
+            DataLogger.entry("PID/" + name + "/Output", DataLogger.Type.DOUBLE);
+    }
 
     /** Create a new GenericPID command.
      * @param name The name of the PID command, used for RobotPreferences values. Use the same name for all commands that should share the same preferences.
@@ -37,14 +91,18 @@ public class GenericPID extends Command {
         DoubleSupplier getError,
         DoubleConsumer useOutput
     ) {
-        this.setName(this.getClass().getSimpleName() + " - " + name);
-        this.name = name;
-        this.p = new DynamicValue<>(name + "P", defaultP);
-        this.i = new DynamicValue<>(name + "I", defaultI);
-        this.d = new DynamicValue<>(name + "D", defaultD);
-        this.iMax = new DynamicValue<>(name + "IMax", defaultIMax);
-        this.getError = getError;
-        this.useOutput = useOutput;
+        this(
+            name,
+            DynamicPIDGains.forName(
+                name,
+                defaultP,
+                defaultI,
+                defaultD,
+                defaultIMax
+            ),
+            getError,
+            useOutput
+        );
     }
 
     /** Create a new GenericPID command. The error is calculated by subtracting the measurement from the setpoint.
@@ -105,56 +163,167 @@ public class GenericPID extends Command {
             defaultD,
             defaultIMax,
             getMeasurement,
-            new DynamicValue<>(name + "Setpoint", defaultSetpoint)::get,
+            new DynamicDouble(name + "Setpoint", defaultSetpoint),
             useOutput
         );
     }
 
     /** Calculate the output of the PID.
      * Running this will cause the "last" values to be changed (used for the integral and derivative terms), so it should only be run once per loop.
+     * The gains are read once, so a single calculation never mixes old and new gains.
      * @return The calculated output of the PID
      */
     protected double calculate() {
-        if (lastRunTime == 0) lastRunTime = Timer.getFPGATimestamp(); // Prevent large term as a result of first run
-        final double curTime = Timer.getFPGATimestamp();
-        final double dt = curTime - lastRunTime;
-        final double error = getError.getAsDouble();
-        final double errorRate = (error - lastError) / dt;
-        errorSum += error * dt;
-        // If errorSum is outside the max value, set it to the respective bound. iMax is used to prevent integral windup.
-        errorSum = Math.max(-iMax.get(), Math.min(iMax.get(), errorSum));
-        lastRunTime = curTime;
-        lastError = error;
-        return error * p.get() + errorSum * i.get() + errorRate * d.get();
+        final double error = notifierRunning && getRealtimeError != null
+            ? getRealtimeError.getAsDouble()
+            : getError.getAsDouble();
+        latestError = error;
+        final double output = schedule == null
+            ? core.calculate(error, gains.get())
+            : schedule.calculate(core, error);
+        stats.record(
+            core.getLastDt(),
+            period > 0 ? period : TimedRobot.kDefaultPeriod,
+            Math.abs(output) >= 1
+        );
+        DataLogger.logDouble(errorEntry, error);
+        DataLogger.logDouble(outputEntry, output);
+        return output;
+    }
+
+    /** Set the clock used to measure the time between calculations. Default: {@link Clock#FPGA}
+     * This resets the PID, so it should be set before the command is scheduled.
+     * @param clock The clock to use
+     * @return The GenericPID, for chaining
+     */
+    public GenericPID setClock(Clock clock) {
+        this.clock = clock;
+        core = new PIDCore(clock);
+        return this;
+    }
+
+    /** Get the clock used to measure the time between calculations, for subclasses that need to time anything else.
+     * @return The clock
+     */
+    protected Clock getClock() {
+        return clock;
+    }
+
+    /** Check whether the gains have changed since this was last called (or since the command was initialized).
+     * Used by subclasses that run the PID on the motor controller, to only send the gains when they're changed.
+     * @param gains The current gains, which will be recorded as sent
+     * @return Whether the gains have changed
+     */
+    protected boolean gainsChanged(PIDGains gains) {
+        if (gains.version == sentVersion) return false;
+        sentVersion = gains.version;
+        return true;
+    }
+
+    /** Set the period to run the PID at on a dedicated {@link Notifier} thread, instead of with the CommandScheduler.
+     * The useOutput function (and getError, unless {@link #setRealtimeError(DoubleSupplier)} is used) is then called from
+     * the Notifier thread, so they must be thread-safe.
+     * Takes effect the next time the command is scheduled.
+     * @param period The period in seconds, or 0 to run with the CommandScheduler (default)
+     * @return The GenericPID, for chaining
+     */
+    public GenericPID setPeriod(double period) {
+        this.period = period;
+        return this;
+    }
+
+    /** Set a function that reads the error from the sensors directly, used instead of getError while the PID runs on
+     * its Notifier thread (where values batched once per robot loop would be stale). getError stays in use on the main
+     * thread, so it should use the batched values.
+     * @param getRealtimeError A function that returns the up-to-date error, or null to always use getError (default)
+     * @return The GenericPID, for chaining
+     */
+    public GenericPID setRealtimeError(DoubleSupplier getRealtimeError) {
+        this.getRealtimeError = getRealtimeError;
+        return this;
+    }
+
+    /** Set a gain schedule to use instead of the gains, when the PID runs in the command. PIDs running on the motor
+     * controller still use the gains.
+     * @param schedule The gain schedule, which can be shared between commands, or null to use the gains (default)
+     * @return The GenericPID, for chaining
+     */
+    public GenericPID setGainSchedule(GainSchedule schedule) {
+        this.schedule = schedule;
+        return this;
+    }
+
+    /** Check whether the PID should run on its own Notifier thread. Subclasses that sometimes don't run the PID in the
+     * command (e.g. when it's running on the motor controller) should override this.
+     * @return Whether to run the PID on a Notifier thread
+     */
+    protected boolean useNotifier() {
+        return period > 0;
+    }
+
+    /** Get the latest error. When running on a Notifier thread, this is the error from its last calculation, so the main
+     * thread doesn't read the sensors itself.
+     * @return The latest error
+     */
+    protected double getLatestError() {
+        return notifierRunning && !Double.isNaN(latestError)
+            ? latestError
+            : getError.getAsDouble();
+    }
+
+    /**
+     * Run one iteration of the Notifier loop.
+     */
+    private void runNotifier() {
+        synchronized (notifierLock) {
+            if (notifierRunning) useOutput.accept(calculate());
+        }
     }
 
     /**
-     * Called when the command is first scheduled. The default behaviour is to reset the "last" values.
-     * This shouldn't need to be overridden in most cases.
+     * Called when the command is first scheduled. The default behaviour is to reset the PID, and start the
+     * Notifier loop if one is used. This shouldn't need to be overridden in most cases.
      */
     @Override
     public void initialize() {
-        this.errorSum = 0;
-        this.lastRunTime = 0;
-        this.lastError = 0;
+        this.core.reset();
+        this.startTime = clock.now();
+        this.sentVersion = -1;
+        this.latestError = Double.NaN;
+        if (useNotifier()) {
+            if (notifier == null) {
+                notifier = new Notifier(this::runNotifier);
+                notifier.setName(getName());
+            }
+            notifierRunning = true;
+            notifier.startPeriodic(period);
+        }
     }
 
     /**
      * Called periodically while the command is scheduled. The default behaviour is to calculate the output and
-     * use it in the useOutput function.
+     * use it in the useOutput function, unless the PID is running on a Notifier thread.
      */
     @Override
     public void execute() {
-        useOutput.accept(calculate());
+        if (!notifierRunning) useOutput.accept(calculate());
     }
 
-    /** Called when the command is finished. The default behaviour is to set the output to 0.
+    /** Called when the command is finished. The default behaviour is to stop the Notifier loop (if used), and set the
+     * output to 0.
      * <p>
      * By default, the command will not end naturally, and must be cancelled; you can change this by overriding isFinished().
      * @param interrupted Whether the command was interrupted/cancelled
      */
     @Override
     public void end(boolean interrupted) {
+        if (notifierRunning) {
+            notifier.stop();
+            synchronized (notifierLock) { // Wait for an in-progress iteration, so it can't overwrite the 0 output
+                notifierRunning = false;
+            }
+        }
         useOutput.accept(0);
+        if (!interrupted) stats.recordSettle(clock.now() - startTime);
     }
 }
@@ -0,0 +1,107 @@
+package frc.robot.commands;
+
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import frc.robot.util.DynamicDouble;
+
+/**
+ * Generates the setpoints of a trapezoidal motion profile from the current position to a goal, for the profiled PID
+ * commands to track. The velocity & acceleration limits are live-tunable, and take effect on the next update.
+ * <p>
+ * While no profile is running (before {@link #reset(double)}, or after {@link #stop()}), the setpoint is the goal, so
+ * the error is the same as an unprofiled PID's.
+ * <p>
+ * The goal & setpoint are reused between updates, so they're guarded by the tracker's lock, as the setpoint is updated
+ * on the Notifier thread while the main thread reads it.
+ */
+class ProfileTracker {
+
+    private final DynamicDouble maxVelocity, maxAcceleration;
+    private final TrapezoidProfile.State goal, setpoint =
+        new TrapezoidProfile.State();
+    private TrapezoidProfile profile;
+    private double profileMaxVelocity = Double.NaN, profileMaxAcceleration =
+        Double.NaN, lastTime;
+    private boolean running = false; // Whether the setpoint is following a profile, instead of being the goal
+
+    /** Create a new ProfileTracker.
+     * @param goal The position to move to, where the profile ends at rest
+     * @param maxVelocity The maximum velocity, in position units per second
+     * @param maxAcceleration The maximum acceleration, in position units per second squared
+     */
+    ProfileTracker(
+        double goal,
+        DynamicDouble maxVelocity,
+        DynamicDouble maxAcceleration
+    ) {
+        this.goal = new TrapezoidProfile.State(goal, 0);
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+    }
+
+    /** Start a new profile from a position, at rest.
+     * @param position The current position
+     * @param now The current time, in seconds, from the clock of the command tracking the profile
+     */
+    synchronized void reset(double position, double now) {
+        setpoint.position = position;
+        setpoint.velocity = 0;
+        running = true;
+        lastTime = now;
+    }
+
+    /**
+     * Stop the profile, so the setpoint is the goal.
+     */
+    synchronized void stop() {
+        running = false;
+    }
+
+    /** Advance the setpoint by the time since the last update. The profile is only rebuilt when the limits change.
+     * @param now The current time, in seconds, from the same clock as {@link #reset(double, double)}
+     */
+    synchronized void update(double now) {
+        if (!running) return;
+        final double velocity = maxVelocity.getAsDouble(), acceleration =
+            maxAcceleration.getAsDouble();
+        if (
+            velocity != profileMaxVelocity ||
+            acceleration != profileMaxAcceleration
+        ) {
+            profile =
+                new TrapezoidProfile(
+                    new TrapezoidProfile.Constraints(velocity, acceleration)
+                );
+            profileMaxVelocity = velocity;
+            profileMaxAcceleration = acceleration;
+        }
+        final TrapezoidProfile.State next = profile.calculate(
+            now - lastTime,
+            setpoint,
+            goal
+        );
+        setpoint.position = next.position;
+        setpoint.velocity = next.velocity;
+        lastTime = now;
+    }
+
+    /** Get the position of the current setpoint.
+     * @return The setpoint's position, or the goal if no profile is running
+     */
+    synchronized double getPosition() {
+        return running ? setpoint.position : goal.position;
+    }
+
+    /** Get the velocity of the current setpoint.
+     * @return The setpoint's velocity, or 0 if no profile is running
+     */
+    synchronized double getVelocity() {
+        return running ? setpoint.velocity : 0;
+    }
+
+    /** Check whether the setpoint has reached the goal.
+     * @return Whether the setpoint is at the goal
+     */
+    synchronized boolean atGoal() {
+        return !running || setpoint.equals(goal);
+    }
+}
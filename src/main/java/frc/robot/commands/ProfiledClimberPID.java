@@ -0,0 +1,57 @@
+package frc.robot.commands;
+
+import edu.wpi.first.math.controller.ElevatorFeedforward;
+import frc.robot.subsystems.ClimberSubsystem;
+import frc.robot.util.DynamicDouble;
+import frc.robot.util.DynamicPIDGains;
+
+/**
+ * A {@link ClimberPID} alternative that moves the climber along a trapezoidal motion profile, instead of stepping
+ * straight to the target. Elevator-style feedforward (static friction, gravity, and velocity) is added to the PID's
+ * output.
+ */
+public class ProfiledClimberPID extends ProfiledPID {
+
+    final ClimberSubsystem climber;
+    final ElevatorFeedforward feedforward;
+
+    /** Create a new ProfiledClimberPID command. This command will end once the profile has finished, and the error is
+     * within the targetTolerance (if given).
+     * @param name The name of the PID command
+     * @param climber The climber subsystem
+     * @param target The target position
+     * @param targetTolerance The tolerance for the target position, or null to never end
+     * @param gains The gains to use, which can be shared between commands
+     * @param maxVelocity The maximum velocity of the profile, in raw encoder units per second
+     * @param maxAcceleration The maximum acceleration of the profile, in raw encoder units per second squared
+     * @param feedforward The feedforward, in percent output, using raw encoder units per second
+     */
+    public ProfiledClimberPID(
+        String name,
+        ClimberSubsystem climber,
+        double target,
+        DynamicDouble targetTolerance,
+        DynamicPIDGains gains,
+        DynamicDouble maxVelocity,
+        DynamicDouble maxAcceleration,
+        ElevatorFeedforward feedforward
+    ) {
+        super(
+            name,
+            gains,
+            new ProfileTracker(target, maxVelocity, maxAcceleration),
+            climber::getPosition,
+            climber::getRealtimePosition,
+            climber::setMotor,
+            targetTolerance
+        );
+        addRequirements(climber);
+        this.climber = climber;
+        this.feedforward = feedforward;
+    }
+
+    @Override
+    protected double feedforward() {
+        return feedforward.calculate(tracker.getVelocity());
+    }
+}
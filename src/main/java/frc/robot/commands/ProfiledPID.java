@@ -0,0 +1,86 @@
+package frc.robot.commands;
+
+import frc.robot.util.DynamicDouble;
+import frc.robot.util.DynamicPIDGains;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A {@link GenericPID} that moves along a trapezoidal motion profile, instead of stepping straight to the target. The
+ * PID tracks the profile's setpoint, and the subclass's {@link #feedforward()} is added to its output, so the PID only
+ * has to correct for the remaining error.
+ * <p>
+ * The profile is timed with the command's clock, so a {@link frc.robot.util.ManualClock} given to
+ * {@link #setClock(frc.robot.util.Clock)} steps the profile too.
+ */
+public abstract class ProfiledPID extends GenericPID {
+
+    final ProfileTracker tracker;
+    final DoubleSupplier getPosition;
+    final DynamicDouble tolerance;
+
+    /** Create a new ProfiledPID command. This command will end once the profile has finished, and the error is within
+     * the targetTolerance (if given).
+     * @param name The name of the PID command
+     * @param gains The gains to use, which can be shared between commands
+     * @param tracker The profile to track
+     * @param getPosition A function that returns the position, using values batched once per robot loop
+     * @param getRealtimePosition A function that reads the position from the sensors directly, for the Notifier thread
+     * @param useOutput A function that uses the output of the PID (usually to set motor speeds)
+     * @param targetTolerance The tolerance for the target position, or null to never end
+     */
+    ProfiledPID(
+        String name,
+        DynamicPIDGains gains,
+        ProfileTracker tracker,
+        DoubleSupplier getPosition,
+        DoubleSupplier getRealtimePosition,
+        DoubleConsumer useOutput,
+        DynamicDouble targetTolerance
+    ) {
+        super(
+            name,
+            gains,
+            () -> tracker.getPosition() - getPosition.getAsDouble(),
+            useOutput
+        );
+        setRealtimeError(() ->
+            tracker.getPosition() - getRealtimePosition.getAsDouble()
+        );
+        this.tracker = tracker;
+        this.getPosition = getPosition;
+        this.tolerance = targetTolerance;
+    }
+
+    /** Calculate the feedforward for the profile's current setpoint.
+     * @return The feedforward, in percent output
+     */
+    protected abstract double feedforward();
+
+    @Override
+    public void initialize() {
+        tracker.reset(getPosition.getAsDouble(), getClock().now());
+        super.initialize();
+    }
+
+    @Override
+    protected double calculate() {
+        tracker.update(getClock().now());
+        return super.calculate() + feedforward();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        super.end(interrupted);
+        tracker.stop();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return (
+            tolerance != null &&
+            tracker.atGoal() &&
+            Math.abs(getLatestError()) < tolerance.getAsDouble()
+        );
+    }
+}
@@ -0,0 +1,66 @@
+package frc.robot.commands;
+
+import edu.wpi.first.math.controller.ArmFeedforward;
+import frc.robot.subsystems.IntakeSubsystems;
+import frc.robot.util.DynamicDouble;
+import frc.robot.util.DynamicPIDGains;
+
+/**
+ * A {@link RotationPID} alternative that moves the intake along a trapezoidal motion profile, instead of stepping
+ * straight to the target. Arm-style feedforward (static friction, gravity, and velocity) is added to the PID's output.
+ */
+public class ProfiledRotationPID extends ProfiledPID {
+
+    final IntakeSubsystems.RotationSubsystem rotation;
+    final ArmFeedforward feedforward;
+    final double radiansPerUnit, horizontalPosition;
+
+    /** Create a new ProfiledRotationPID command. This command will end once the profile has finished, and the error is
+     * within the targetTolerance (if given).
+     * @param name The name of the PID command
+     * @param rotation The rotation subsystem
+     * @param target The target position
+     * @param targetTolerance The tolerance for the target position, or null to never end
+     * @param gains The gains to use, which can be shared between commands
+     * @param maxVelocity The maximum velocity of the profile, in raw encoder units per second
+     * @param maxAcceleration The maximum acceleration of the profile, in raw encoder units per second squared
+     * @param feedforward The feedforward, in percent output, using radians from horizontal & raw encoder units per second
+     * @param radiansPerUnit The number of radians the intake rotates per raw encoder unit
+     * @param horizontalPosition The position at which the intake is horizontal, in raw encoder units
+     */
+    public ProfiledRotationPID(
+        String name,
+        IntakeSubsystems.RotationSubsystem rotation,
+        double target,
+        DynamicDouble targetTolerance,
+        DynamicPIDGains gains,
+        DynamicDouble maxVelocity,
+        DynamicDouble maxAcceleration,
+        ArmFeedforward feedforward,
+        double radiansPerUnit,
+        double horizontalPosition
+    ) {
+        super(
+            name,
+            gains,
+            new ProfileTracker(target, maxVelocity, maxAcceleration),
+            rotation::getPosition,
+            rotation::getRealtimePosition,
+            rotation::setMotors,
+            targetTolerance
+        );
+        addRequirements(rotation);
+        this.rotation = rotation;
+        this.feedforward = feedforward;
+        this.radiansPerUnit = radiansPerUnit;
+        this.horizontalPosition = horizontalPosition;
+    }
+
+    @Override
+    protected double feedforward() {
+        return feedforward.calculate(
+            (tracker.getPosition() - horizontalPosition) * radiansPerUnit,
+            tracker.getVelocity()
+        );
+    }
+}
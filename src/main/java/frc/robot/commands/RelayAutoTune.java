@@ -0,0 +1,117 @@
+package frc.robot.commands;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.util.Clock;
+import frc.robot.util.PIDGains;
+
+/**
+ * Auto-tunes a {@link GenericPID} with a relay (Astrom-Hagglund) experiment. Instead of running the PID, the output is
+ * switched between +amplitude and -amplitude whenever the error crosses zero (with hysteresis), which makes the
+ * mechanism oscillate around the PID's target. The period and amplitude of the oscillation give the ultimate gain &
+ * period, from which the Ziegler-Nichols PID gains are calculated and written to the PID's RobotPreferences gains.
+ * <p>
+ * The first oscillation is ignored, as it includes the move to the target. The I max value isn't changed.
+ */
+public class RelayAutoTune extends Command {
+
+    private final GenericPID pid;
+    private final double amplitude, hysteresis, timeout;
+    private final int cycles;
+    private final Clock clock = Clock.FPGA;
+    private double startTime, relay, lastRiseTime, peakHigh, peakLow;
+    private double periodSum, oscillationSum; // Sums over the measured oscillations, for averaging
+    private int rises, measuredCycles;
+
+    /** Create a new RelayAutoTune command.
+     * @param pid The PID to tune, whose error & output are used, and whose gains are written
+     * @param amplitude The relay output amplitude (0-1)
+     * @param hysteresis How far the error must cross zero before the relay switches, to ignore sensor noise
+     * @param cycles The number of oscillations to average over
+     * @param timeout The time (seconds) to give up after, if the oscillations haven't been measured
+     */
+    public RelayAutoTune(
+        GenericPID pid,
+        double amplitude,
+        double hysteresis,
+        int cycles,
+        double timeout
+    ) {
+        addRequirements(pid.getRequirements().toArray(new Subsystem[0]));
+        this.setName(this.getClass().getSimpleName() + " - " + pid.name);
+        this.pid = pid;
+        this.amplitude = amplitude;
+        this.hysteresis = hysteresis;
+        this.cycles = cycles;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void initialize() {
+        startTime = clock.now();
+        relay = pid.getError.getAsDouble() >= 0 ? amplitude : -amplitude;
+        lastRiseTime = Double.NaN;
+        peakHigh = Double.NEGATIVE_INFINITY;
+        peakLow = Double.POSITIVE_INFINITY;
+        periodSum = oscillationSum = 0;
+        rises = measuredCycles = 0;
+    }
+
+    @Override
+    public void execute() {
+        final double error = pid.getError.getAsDouble();
+        peakHigh = Math.max(peakHigh, error);
+        peakLow = Math.min(peakLow, error);
+        if (relay < 0 && error > hysteresis) { // Rising crossing, which starts a new oscillation
+            final double now = clock.now();
+            rises++;
+            if (rises >= 3) { // The oscillation between the 1st and 2nd rises includes the move to the target
+                periodSum += now - lastRiseTime;
+                oscillationSum += (peakHigh - peakLow) / 2;
+                measuredCycles++;
+            }
+            lastRiseTime = now;
+            peakHigh = peakLow = error;
+            relay = amplitude;
+        } else if (relay > 0 && error < -hysteresis) relay = -amplitude;
+        pid.useOutput.accept(relay);
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        pid.useOutput.accept(0);
+        if (measuredCycles < cycles) {
+            System.out.println(
+                "WARNING: " +
+                getName() +
+                " stopped before measuring " +
+                cycles +
+                " oscillations, gains not changed."
+            );
+            return;
+        }
+        final double period = periodSum / measuredCycles;
+        final double oscillation = oscillationSum / measuredCycles;
+        final double ultimateGain = 4 * amplitude / (Math.PI * oscillation);
+        // Classic Ziegler-Nichols PID: Kp = 0.6Ku, Ti = Tu / 2, Td = Tu / 8
+        final double p = 0.6 * ultimateGain;
+        final double i = p / (period / 2);
+        final double d = p * (period / 8);
+        final PIDGains old = pid.gains.get();
+        pid.gains.set(p, i, d, old.iMax);
+        System.out.printf(
+            "%s: Ku = %.5f, Tu = %.3f s -> P = %.5f, I = %.5f, D = %.5f%n",
+            getName(),
+            ultimateGain,
+            period,
+            p,
+            i,
+            d
+        );
+    }
+
+    @Override
+    public boolean isFinished() {
+        return measuredCycles >= cycles || clock.now() - startTime > timeout;
+    }
+}
@@ -1,74 +1,103 @@
 package frc.robot.commands;
 
 import frc.robot.subsystems.IntakeSubsystems;
-import frc.robot.util.DynamicValue;
+import frc.robot.util.DynamicDouble;
+import frc.robot.util.DynamicPIDGains;
+import frc.robot.util.PIDGains;
 
 public class RotationPID extends GenericPID {
 
-    DynamicValue<Double> tolerance;
-    boolean canEnd = false;
+    final IntakeSubsystems.RotationSubsystem rotation;
+    final double target;
+    DynamicDouble tolerance;
+    boolean canEnd = false, onboard = false;
 
     /** Create a new RotationPID command.
      * <p>
-     *     ! This command will not end, use {@link #RotationPID(String, IntakeSubsystems.RotationSubsystem, double, DynamicValue, double, double, double, double)} if you want the command to end.
+     *     ! This command will not end, use {@link #RotationPID(String, IntakeSubsystems.RotationSubsystem, double, DynamicDouble, DynamicPIDGains)} if you want the command to end.
      * </p>
-     * @param name The name of the PID command, used for RobotPreferences values. Use the same name for all commands that should share the same preferences.
+     * @param name The name of the PID command
      * @param rotation The rotation subsystem
      * @param target The target position
-     * @param defaultP The default P value
-     * @param defaultI The default I value
-     * @param defaultD The default D value
-     * @param defaultIMax The default I max value (the maximum value of the integral term)
+     * @param gains The gains to use, which can be shared between commands
      */
     public RotationPID(
         String name,
         IntakeSubsystems.RotationSubsystem rotation,
         double target,
-        double defaultP,
-        double defaultI,
-        double defaultD,
-        double defaultIMax
+        DynamicPIDGains gains
     ) {
         super(
             name,
-            defaultP,
-            defaultI,
-            defaultD,
-            defaultIMax,
+            gains,
             () -> target - rotation.getPosition(),
             rotation::setMotors
         );
+        setRealtimeError(() -> target - rotation.getRealtimePosition());
         addRequirements(rotation);
+        this.rotation = rotation;
+        this.target = target;
     }
 
     /** Create a new RotationPID command.
      * <p>This command will end once the error is within the targetTolerance.</p>
-     * @param name The name of the PID command, used for RobotPreferences values. Use the same name for all commands that should share the same preferences.
+     * @param name The name of the PID command
      * @param rotation The rotation subsystem
      * @param target The target position
      * @param targetTolerance The tolerance for the target position
-     * @param defaultP The default P value
-     * @param defaultI The default I value
-     * @param defaultD The default D value
-     * @param defaultIMax The default I max value (the maximum value of the integral term)
+     * @param gains The gains to use, which can be shared between commands
      */
     public RotationPID(
         String name,
         IntakeSubsystems.RotationSubsystem rotation,
         double target,
-        DynamicValue<Double> targetTolerance,
-        double defaultP,
-        double defaultI,
-        double defaultD,
-        double defaultIMax
+        DynamicDouble targetTolerance,
+        DynamicPIDGains gains
     ) {
-        this(name, rotation, target, defaultP, defaultI, defaultD, defaultIMax);
+        this(name, rotation, target, gains);
         tolerance = targetTolerance;
         canEnd = true;
     }
 
+    /** Set whether the PID runs on the motor controllers (at their own loop rate) instead of in this command.
+     * The same RobotPreferences gains are used either way, and are sent to the motor controllers whenever they change.
+     * @param onboard Whether to run the PID on the motor controllers
+     * @return The RotationPID, for chaining
+     */
+    public RotationPID setOnboard(boolean onboard) {
+        this.onboard = onboard;
+        return this;
+    }
+
+    @Override
+    public void execute() {
+        if (!onboard) {
+            super.execute();
+            return;
+        }
+        final PIDGains gains = this.gains.get();
+        if (gainsChanged(gains)) rotation.setPID(
+            gains.p,
+            gains.i,
+            gains.d,
+            gains.iMax
+        );
+        rotation.setTargetPosition(target);
+    }
+
+    @Override
+    public RotationPID setPeriod(double period) {
+        super.setPeriod(period);
+        return this;
+    }
+
+    @Override
+    protected boolean useNotifier() {
+        return !onboard && super.useNotifier();
+    }
+
     @Override
     public boolean isFinished() {
-        return canEnd && Math.abs(getError.getAsDouble()) < tolerance.get();
+        return canEnd && Math.abs(getLatestError()) < tolerance.getAsDouble();
     }
 }
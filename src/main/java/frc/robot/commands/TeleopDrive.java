@@ -1,9 +1,10 @@
 package frc.robot.commands;
 
 import edu.wpi.first.math.filter.SlewRateLimiter;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.subsystems.DriveSubsystem;
+import frc.robot.util.TelemetryScheduler;
+import frc.robot.util.TelemetryScheduler.Tier;
 import java.util.function.Supplier;
 
 public class TeleopDrive extends Command {
@@ -11,7 +12,7 @@ public class TeleopDrive extends Command {
     DriveSubsystem drive;
     Supplier<Double> lSpeedFunc, rSpeedFunc;
     SlewRateLimiter leftLimiter, rightLimiter;
-    double speedMult;
+    double speedMult, stickLeft, stickRight; // The sticks are stored for telemetry
 
     /**
      * Creates a TeleopDrive Command. This command is used to control the drive in the teleop phase.
@@ -35,6 +36,17 @@ public class TeleopDrive extends Command {
         this.leftLimiter = new SlewRateLimiter(rateLimit);
         this.rightLimiter = new SlewRateLimiter(rateLimit);
         this.speedMult = 1;
+        TelemetryScheduler.add("Stick Left", Tier.ON_DEMAND, () -> stickLeft);
+        TelemetryScheduler.add(
+            "Stick Right",
+            Tier.ON_DEMAND,
+            () -> stickRight
+        );
+        TelemetryScheduler.add(
+            "Teleop Speed Mult",
+            Tier.NORMAL,
+            () -> speedMult
+        );
     }
 
     /** Get the current speed multiplier
@@ -60,15 +72,12 @@ public class TeleopDrive extends Command {
 
     @Override
     public void execute() {
-        final double stickLeft = lSpeedFunc.get();
-        final double stickRight = rSpeedFunc.get();
+        stickLeft = lSpeedFunc.get();
+        stickRight = rSpeedFunc.get();
         double speedLeft = leftLimiter.calculate(stickLeft) * this.speedMult;
         double speedRight = rightLimiter.calculate(stickRight) * this.speedMult;
         drive.setLeftMotors(speedLeft);
         drive.setRightMotors(speedRight);
-        SmartDashboard.putNumber("Stick Left", stickLeft);
-        SmartDashboard.putNumber("Stick Right", stickRight);
-        SmartDashboard.putNumber("Teleop Speed Mult", speedMult);
     }
 
     @Override
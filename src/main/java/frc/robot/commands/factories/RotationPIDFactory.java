@@ -1,20 +1,30 @@
 package frc.robot.commands.factories;
 
+import edu.wpi.first.math.controller.ArmFeedforward;
+import frc.robot.commands.GenericPID;
+import frc.robot.commands.ProfiledRotationPID;
 import frc.robot.commands.RotationPID;
 import frc.robot.subsystems.IntakeSubsystems;
-import frc.robot.util.DynamicValue;
+import frc.robot.util.DynamicDouble;
+import frc.robot.util.DynamicPIDGains;
+import frc.robot.util.GainSchedule;
 
 public class RotationPIDFactory {
 
     String name;
     IntakeSubsystems.RotationSubsystem rotation;
-    DynamicValue<Double> targetTolerance;
-    double target, defaultP, defaultI, defaultD, defaultIMax;
-    boolean canEnd = false;
+    DynamicDouble targetTolerance;
+    DynamicPIDGains gains; // Shared by every generated command, and every factory using the same name
+    GenericPID shared; // Handed out by get(), created on first use
+    GainSchedule schedule; // null to always use the gains
+    DynamicDouble maxVelocity, maxAcceleration; // Only set when profiled, see setProfile()
+    ArmFeedforward feedforward;
+    double target, period = 0, radiansPerUnit, horizontalPosition;
+    boolean canEnd = false, onboard = false;
 
     /** Create a new RotationPIDFactory, which will generate RotationPIDs with the given parameters.
      * <p>
-     *     ! This factory will generate commands that will not end, use {@link #RotationPIDFactory(String, IntakeSubsystems.RotationSubsystem, double, DynamicValue, double, double, double, double)} if you want the command to end.
+     *     ! This factory will generate commands that will not end, use {@link #RotationPIDFactory(String, IntakeSubsystems.RotationSubsystem, double, DynamicDouble, double, double, double, double)} if you want the command to end.
      * </p>
      * @param name The name of the PID command, used for RobotPreferences values. Use the same name for all commands that should share the same preferences.
      * @param rotation The rotation subsystem
@@ -36,10 +46,14 @@ public class RotationPIDFactory {
         this.name = name;
         this.rotation = rotation;
         this.target = target;
-        this.defaultP = defaultP;
-        this.defaultI = defaultI;
-        this.defaultD = defaultD;
-        this.defaultIMax = defaultIMax;
+        this.gains =
+            DynamicPIDGains.forName(
+                name,
+                defaultP,
+                defaultI,
+                defaultD,
+                defaultIMax
+            );
     }
 
     /** Create a new RotationPIDFactory, which will generate RotationPIDs with the given parameters.
@@ -57,7 +71,7 @@ public class RotationPIDFactory {
         String name,
         IntakeSubsystems.RotationSubsystem rotation,
         double target,
-        DynamicValue<Double> targetTolerance,
+        DynamicDouble targetTolerance,
         double defaultP,
         double defaultI,
         double defaultD,
@@ -68,31 +82,115 @@ public class RotationPIDFactory {
         this.canEnd = true;
     }
 
-    /** Create a new RotationPID with the parameters given to this factory.
-     * @return A new RotationPID with the parameters given to this factory
+    /** Set whether the generated commands run the PID on the motor controllers, instead of in the command.
+     * @param onboard Whether to run the PID on the motor controllers
+     * @return The RotationPIDFactory, for chaining
      */
-    public RotationPID create() {
-        if (canEnd) {
-            return new RotationPID(
+    public RotationPIDFactory setOnboard(boolean onboard) {
+        this.onboard = onboard;
+        return this;
+    }
+
+    /** Set the period to run the PID of the generated commands at on a dedicated thread.
+     * @param period The period in seconds, or 0 to run with the CommandScheduler
+     * @return The RotationPIDFactory, for chaining
+     */
+    public RotationPIDFactory setPeriod(double period) {
+        this.period = period;
+        return this;
+    }
+
+    /** Set a gain schedule for the generated commands to use instead of their gains, when not running onboard.
+     * @param schedule The gain schedule, or null to use the gains
+     * @return The RotationPIDFactory, for chaining
+     */
+    public RotationPIDFactory setGainSchedule(GainSchedule schedule) {
+        this.schedule = schedule;
+        return this;
+    }
+
+    /** Get the gains shared by every generated command, such as to use them as a point of a {@link GainSchedule}.
+     * @return The gains
+     */
+    public DynamicPIDGains getGains() {
+        return gains;
+    }
+
+    /** Make the generated commands {@link ProfiledRotationPID}s, which follow a trapezoidal motion profile with
+     * feedforward instead of stepping straight to the target. Profiled commands always run the PID in the command.
+     * @param maxVelocity The maximum velocity of the profile, in raw encoder units per second
+     * @param maxAcceleration The maximum acceleration of the profile, in raw encoder units per second squared
+     * @param feedforward The feedforward, in percent output, using radians from horizontal & raw encoder units per second
+     * @param radiansPerUnit The number of radians the intake rotates per raw encoder unit
+     * @param horizontalPosition The position at which the intake is horizontal, in raw encoder units
+     * @return The RotationPIDFactory, for chaining
+     */
+    public RotationPIDFactory setProfile(
+        DynamicDouble maxVelocity,
+        DynamicDouble maxAcceleration,
+        ArmFeedforward feedforward,
+        double radiansPerUnit,
+        double horizontalPosition
+    ) {
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.feedforward = feedforward;
+        this.radiansPerUnit = radiansPerUnit;
+        this.horizontalPosition = horizontalPosition;
+        return this;
+    }
+
+    /** Create a new RotationPID (or ProfiledRotationPID, if a profile is set) with the parameters given to this factory.
+     * <p>
+     * Every call creates a new command, as a command can only be added to one command group. Commands are only reused
+     * through {@link #get()}, for binding directly to triggers; command groups are built once when bindings are
+     * configured, so each gets its own command then, not every time it's scheduled.
+     * @return A new PID command with the parameters given to this factory
+     */
+    public GenericPID create() {
+        if (maxVelocity != null) {
+            return new ProfiledRotationPID(
                 name,
                 rotation,
                 target,
                 targetTolerance,
-                defaultP,
-                defaultI,
-                defaultD,
-                defaultIMax
-            );
-        } else {
+                gains,
+                maxVelocity,
+                maxAcceleration,
+                feedforward,
+                radiansPerUnit,
+                horizontalPosition
+            )
+                .setPeriod(period)
+                .setGainSchedule(schedule);
+        } else if (canEnd) {
             return new RotationPID(
                 name,
                 rotation,
                 target,
-                defaultP,
-                defaultI,
-                defaultD,
-                defaultIMax
-            );
+                targetTolerance,
+                gains
+            )
+                .setOnboard(onboard)
+                .setPeriod(period)
+                .setGainSchedule(schedule);
+        } else {
+            return new RotationPID(name, rotation, target, gains)
+                .setOnboard(onboard)
+                .setPeriod(period)
+                .setGainSchedule(schedule);
         }
     }
+
+    /** Get a command shared by every caller, created with the parameters given to this factory the first time this is
+     * called. The command resets whenever it's initialized, so it can be bound to any number of triggers, or scheduled
+     * again after it ends, without creating a new command (and its PID state) each time.
+     * <p>
+     * A command can only be added to one command group, so use {@link #create()} for command groups.
+     * @return The shared command
+     */
+    public GenericPID get() {
+        if (shared == null) shared = create();
+        return shared;
+    }
 }
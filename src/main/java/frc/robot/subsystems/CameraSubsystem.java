@@ -2,9 +2,10 @@ package frc.robot.subsystems;
 
 import edu.wpi.first.cameraserver.CameraServer;
 import edu.wpi.first.cscore.UsbCamera;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
-public class CameraSubsystem extends SubsystemBase implements AutoCloseable {
+public class CameraSubsystem
+    extends ProfiledSubsystemBase
+    implements AutoCloseable {
 
     UsbCamera camera;
 
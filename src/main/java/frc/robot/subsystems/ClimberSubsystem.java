@@ -1,20 +1,54 @@
 package frc.robot.subsystems;
 
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
 import frc.robot.util.GenericController;
 import frc.robot.util.GenericController.BaseController;
+import frc.robot.util.GenericController.ControlMode;
 import frc.robot.util.GenericController.NeutralMode;
+import frc.robot.util.GenericController.Signal;
+import frc.robot.util.GenericController.TelemetryProfile;
+import frc.robot.util.MotorTelemetry;
+import frc.robot.util.TelemetryScheduler.Tier;
 
-public class ClimberSubsystem extends SubsystemBase {
+public class ClimberSubsystem extends ProfiledSubsystemBase {
 
     final GenericController motor;
 
     // Private constructor so people use .create() instead
     private ClimberSubsystem(BaseController type, int mID, boolean invert) {
         motor = new GenericController(type, mID);
+        motor.beginConfig(); // Committed with the rest of the robot's configuration
         motor.setInverted(invert);
+        if (
+            Constants.Debug.ENABLE && Constants.Debug.DETAILED_SMART_DASHBOARD
+        ) motor.setTelemetryProfile(
+            TelemetryProfile.NORMAL,
+            Signal.POSITION,
+            Signal.TEMPERATURE,
+            Signal.SUPPLY_CURRENT,
+            Signal.STATOR_CURRENT
+        ); else motor.setTelemetryProfile(
+            TelemetryProfile.NORMAL,
+            Signal.POSITION,
+            Signal.TEMPERATURE
+        );
+        if (!Constants.Climber.ENABLE) return; // Nothing is published for a disabled climber
+        if (
+            Constants.Debug.ENABLE && Constants.Debug.DETAILED_SMART_DASHBOARD
+        ) MotorTelemetry.add(
+            "Climber",
+            motor,
+            Tier.ON_DEMAND,
+            Signal.POSITION,
+            Signal.TEMPERATURE,
+            Signal.SUPPLY_CURRENT,
+            Signal.STATOR_CURRENT
+        ); else MotorTelemetry.add(
+            "Climber",
+            motor,
+            Signal.POSITION,
+            Signal.TEMPERATURE
+        );
     }
 
     /** Create a new ClimberSubsystem.
@@ -72,6 +106,24 @@ public class ClimberSubsystem extends SubsystemBase {
         return this;
     }
 
+    /** Set whether the PID gains are scheduled on the climber's load, which reads the stator current every loop
+     * @param scheduled Whether the gains are scheduled on the load
+     * @return The ClimberSubsystem, for chaining
+     */
+    public ClimberSubsystem setLoadScheduled(boolean scheduled) {
+        if (
+            !scheduled ||
+            (Constants.Debug.ENABLE && Constants.Debug.DETAILED_SMART_DASHBOARD)
+        ) return this; // Not needed, or already read for the SmartDashboard
+        motor.setTelemetryProfile(
+            TelemetryProfile.NORMAL,
+            Signal.POSITION,
+            Signal.TEMPERATURE,
+            Signal.STATOR_CURRENT
+        );
+        return this;
+    }
+
     /** Set the motor speed
      * @param speed The speed to set the motor to
      */
@@ -85,6 +137,29 @@ public class ClimberSubsystem extends SubsystemBase {
         motor.set(speed);
     }
 
+    /** Configure the gains used for closed-loop position control on the motor controller.
+     * @param p The proportional gain
+     * @param i The integral gain
+     * @param d The derivative gain
+     * @param iMax The maximum value of the integral term
+     */
+    public void setPID(double p, double i, double d, double iMax) {
+        motor.setPID(p, i, d, iMax);
+    }
+
+    /** Move to a position, using closed-loop control on the motor controller (see {@link #setPID}).
+     * @param position The position to move to, in raw encoder units
+     */
+    public void setTargetPosition(double position) {
+        if (!Constants.Climber.ENABLE) {
+            System.out.println(
+                "ERROR: Climber is disabled but climber motors are getting set. This shouldn't be happening. = ABORTING = "
+            );
+            return;
+        }
+        motor.set(ControlMode.POSITION, position);
+    }
+
     /** Get the position of the motor
      * @return The position of the motor, in raw encoder units
      */
@@ -92,31 +167,24 @@ public class ClimberSubsystem extends SubsystemBase {
         return motor.getPosition();
     }
 
+    /** Get the latest position of the motor, for PID loops running on their own thread
+     * @return The position of the motor, in raw encoder units
+     */
+    public double getRealtimePosition() {
+        return motor.getRealtimePosition();
+    }
+
+    /** Get the stator current of the motor, which is a measure of the load on the climber
+     * @return The stator current of the motor, in amperes
+     */
+    public double getStatorCurrent() {
+        return motor.getStatorCurrent();
+    }
+
     /** Set the position of the motor
      * @param position The position to set to, in raw encoder units
      */
     public void setPosition(double position) {
         motor.setPosition(position);
     }
-
-    @Override
-    public void periodic() {
-        if (!Constants.Climber.ENABLE) return;
-
-        SmartDashboard.putNumber("Climber Position", getPosition());
-        SmartDashboard.putNumber("Climber Temperature", motor.getTemperature());
-
-        if (
-            Constants.Debug.ENABLE && Constants.Debug.DETAILED_SMART_DASHBOARD
-        ) {
-            SmartDashboard.putNumber(
-                "Climber Supply Current",
-                motor.getSupplyCurrent()
-            );
-            SmartDashboard.putNumber(
-                "Climber Stator Current",
-                motor.getStatorCurrent()
-            );
-        }
-    }
 }
@@ -1,18 +1,32 @@
 package frc.robot.subsystems;
 
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
-import frc.robot.util.DynamicValue;
+import frc.robot.util.DynamicDouble;
 import frc.robot.util.GenericController;
 import frc.robot.util.GenericController.BaseController;
 import frc.robot.util.GenericController.NeutralMode;
+import frc.robot.util.GenericController.Signal;
+import frc.robot.util.GenericController.TelemetryProfile;
+import frc.robot.util.MotorTelemetry;
+import frc.robot.util.TelemetryScheduler;
+import frc.robot.util.TelemetryScheduler.Tier;
 import java.util.ArrayList;
 
-public class DriveSubsystem extends SubsystemBase {
+public class DriveSubsystem extends ProfiledSubsystemBase {
 
-    // The values that are initialized to a DynamicValue object are a result of the style of configuration used for this
+    // The signals read from each motor in periodic()
+    static final Signal[] CONSUMED_SIGNALS = Constants.Debug.ENABLE &&
+        Constants.Debug.DETAILED_SMART_DASHBOARD
+        ? new Signal[] {
+            Signal.POSITION,
+            Signal.TEMPERATURE,
+            Signal.SUPPLY_CURRENT,
+            Signal.STATOR_CURRENT,
+        }
+        : new Signal[] { Signal.POSITION, Signal.TEMPERATURE };
+
+    // The values that are initialized to a DynamicDouble object are a result of the style of configuration used for this
     // subsystem which doesn't require people to specify a default value. This shouldn't need to be done for most
     // other subsystems.
     final ArrayList<GenericController> leftMotors = new ArrayList<>(), rightMotors = new ArrayList<>(), motors = new ArrayList<>();
@@ -20,14 +34,34 @@ public class DriveSubsystem extends SubsystemBase {
     double supplyCurrentLimit = 0, supplyTriggerCurrent = 0, supplyTriggerTime =
         0, statorCurrentLimit = 0;
     NeutralMode neutralMode = NeutralMode.Brake;
-    DynamicValue<Double> lCorrect = new DynamicValue<>(
+    DynamicDouble lCorrect = new DynamicDouble(
         1.0
-    ), rCorrect = new DynamicValue<>(1.0);
+    ), rCorrect = new DynamicDouble(1.0);
     boolean lInvert = false, rInvert = false;
     double brakeThreshold = 0, maxTemp = 0;
 
     // Private constructor so people use .create() instead
-    private DriveSubsystem() {}
+    private DriveSubsystem() {
+        if (
+            !Constants.Debug.ENABLE || !Constants.Debug.DETAILED_SMART_DASHBOARD
+        ) {
+            TelemetryScheduler.add(
+                "Drive Highest Temp",
+                Tier.SLOW,
+                this::getHighestTemp
+            );
+            TelemetryScheduler.add(
+                "Drive Left Motor Position (First)",
+                Tier.FAST,
+                () -> leftMotors.get(0).getPosition()
+            );
+            TelemetryScheduler.add(
+                "Drive Right Motor Position (First)",
+                Tier.FAST,
+                () -> rightMotors.get(0).getPosition()
+            );
+        }
+    }
 
     /**
      * Create a new DriveSubsystem.
@@ -36,18 +70,22 @@ public class DriveSubsystem extends SubsystemBase {
         return new DriveSubsystem();
     }
 
-    /** Internal method to add motors, including to a specified array
+    /** Internal method to add motors, including to a specified array. The first motor added to the array leads, and
+     * every other motor follows it.
      * @param arr Additional array to add the motors to
+     * @param name Name of the motors on SmartDashboard, followed by their ID
      * @param ids IDs of the motors to add
      */
     private void addMotors(
         BaseController type,
         ArrayList<GenericController> arr,
+        String name,
         boolean invert,
         int[] ids
     ) {
         for (int id : ids) {
             GenericController motor = new GenericController(type, id);
+            motor.beginConfig(); // Committed with the rest of the robot's configuration
             motor.setNeutralMode(neutralMode);
             motor.setInverted(invert);
             motor.setSupplyCurrentLimit(
@@ -57,6 +95,20 @@ public class DriveSubsystem extends SubsystemBase {
                 supplyTriggerTime
             );
             motor.setStatorCurrentLimit(statorLimit, statorCurrentLimit);
+            motor.setTelemetryProfile(
+                TelemetryProfile.NORMAL,
+                CONSUMED_SIGNALS
+            );
+            if (
+                Constants.Debug.ENABLE &&
+                Constants.Debug.DETAILED_SMART_DASHBOARD
+            ) MotorTelemetry.add(
+                String.format("%s (%d)", name, id),
+                motor,
+                Tier.ON_DEMAND,
+                CONSUMED_SIGNALS
+            );
+            if (!arr.isEmpty()) motor.follow(arr.get(0));
             arr.add(motor);
             motors.add(motor);
         }
@@ -67,7 +119,7 @@ public class DriveSubsystem extends SubsystemBase {
      * @return The DriveSubsystem, for chaining
      */
     public DriveSubsystem addLeftMotors(BaseController type, int... ids) {
-        addMotors(type, leftMotors, lInvert, ids);
+        addMotors(type, leftMotors, "Drive Left Motor", lInvert, ids);
         return this;
     }
 
@@ -76,7 +128,7 @@ public class DriveSubsystem extends SubsystemBase {
      * @return The DriveSubsystem, for chaining
      */
     public DriveSubsystem addRightMotors(BaseController type, int... ids) {
-        addMotors(type, rightMotors, rInvert, ids);
+        addMotors(type, rightMotors, "Drive Right Motor", rInvert, ids);
         return this;
     }
 
@@ -100,13 +152,13 @@ public class DriveSubsystem extends SubsystemBase {
     }
 
     /** Set the percent speed offset for the motors
-     * @param lCorrect A DynamicValue for the percent speed offset for the left motors
-     * @param rCorrect A DynamicValue for the percent speed offset for the right motors
+     * @param lCorrect A DynamicDouble for the percent speed offset for the left motors
+     * @param rCorrect A DynamicDouble for the percent speed offset for the right motors
      * @return The DriveSubsystem, for chaining
      */
     public DriveSubsystem setOffset(
-        DynamicValue<Double> lCorrect,
-        DynamicValue<Double> rCorrect
+        DynamicDouble lCorrect,
+        DynamicDouble rCorrect
     ) {
         this.lCorrect = lCorrect;
         this.rCorrect = rCorrect;
@@ -191,9 +243,7 @@ public class DriveSubsystem extends SubsystemBase {
             (speed > 0 && speed < brakeThreshold) ||
             (speed < 0 && speed > -brakeThreshold)
         ) speed = 0;
-        for (GenericController motor : leftMotors) motor.set(
-            speed * lCorrect.get()
-        );
+        leftMotors.get(0).set(speed * lCorrect.getAsDouble()); // The other left motors follow the first
     }
 
     /**
@@ -206,9 +256,7 @@ public class DriveSubsystem extends SubsystemBase {
             (speed > 0 && speed < brakeThreshold) ||
             (speed < 0 && speed > -brakeThreshold)
         ) speed = 0;
-        for (GenericController motor : rightMotors) motor.set(
-            speed * rCorrect.get()
-        );
+        rightMotors.get(0).set(speed * rCorrect.getAsDouble()); // The other right motors follow the first
     }
 
     /**
@@ -233,82 +281,7 @@ public class DriveSubsystem extends SubsystemBase {
     }
 
     @Override
-    public void periodic() {
-        if (
-            Constants.Debug.ENABLE && Constants.Debug.DETAILED_SMART_DASHBOARD
-        ) {
-            for (GenericController motor : leftMotors) {
-                SmartDashboard.putNumber(
-                    String.format(
-                        "Drive Left Motor (%d) Position",
-                        motor.getID()
-                    ),
-                    motor.getPosition()
-                );
-                SmartDashboard.putNumber(
-                    String.format(
-                        "Drive Left Motor (%d) Temperature",
-                        motor.getID()
-                    ),
-                    motor.getTemperature()
-                );
-                SmartDashboard.putNumber(
-                    String.format(
-                        "Drive Left Motor (%d) Supply Current",
-                        motor.getID()
-                    ),
-                    motor.getSupplyCurrent()
-                );
-                SmartDashboard.putNumber(
-                    String.format(
-                        "Drive Left Motor (%d) Stator Current",
-                        motor.getID()
-                    ),
-                    motor.getStatorCurrent()
-                );
-            }
-            for (GenericController motor : rightMotors) {
-                SmartDashboard.putNumber(
-                    String.format(
-                        "Drive Right Motor (%d) Position",
-                        motor.getID()
-                    ),
-                    motor.getPosition()
-                );
-                SmartDashboard.putNumber(
-                    String.format(
-                        "Drive Right Motor (%d) Temperature",
-                        motor.getID()
-                    ),
-                    motor.getTemperature()
-                );
-                SmartDashboard.putNumber(
-                    String.format(
-                        "Drive Right Motor (%d) Supply Current",
-                        motor.getID()
-                    ),
-                    motor.getSupplyCurrent()
-                );
-                SmartDashboard.putNumber(
-                    String.format(
-                        "Drive Right Motor (%d) Stator Current",
-                        motor.getID()
-                    ),
-                    motor.getStatorCurrent()
-                );
-            }
-        } else {
-            SmartDashboard.putNumber("Drive Highest Temp", getHighestTemp());
-            SmartDashboard.putNumber(
-                "Drive Left Motor Position (First)",
-                leftMotors.get(0).getPosition()
-            );
-            SmartDashboard.putNumber(
-                "Drive Right Motor Position (First)",
-                rightMotors.get(0).getPosition()
-            );
-        }
-
+    protected void profiledPeriodic() {
         if (maxTemp > 0 && getHighestTemp() >= maxTemp) {
             Command currentCommand = this.getCurrentCommand();
             if (
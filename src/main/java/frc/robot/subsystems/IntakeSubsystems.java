@@ -1,15 +1,19 @@
 package frc.robot.subsystems;
 
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
 import frc.robot.util.GenericController;
 import frc.robot.util.GenericController.BaseController;
+import frc.robot.util.GenericController.ControlMode;
+import frc.robot.util.GenericController.Signal;
+import frc.robot.util.GenericController.TelemetryProfile;
+import frc.robot.util.MotorTelemetry;
+import frc.robot.util.TelemetryScheduler;
+import frc.robot.util.TelemetryScheduler.Tier;
 import java.util.ArrayList;
 
 public class IntakeSubsystems {
 
-    public static class RotationSubsystem extends SubsystemBase {
+    public static class RotationSubsystem extends ProfiledSubsystemBase {
 
         final ArrayList<GenericController> motors = new ArrayList<>();
         final GenericController positionalMotor; // The motor we get the position from -- the right/second motor
@@ -23,12 +27,68 @@ public class IntakeSubsystems {
             boolean rmInvert
         ) {
             GenericController lm = new GenericController(type, lmID);
+            lm.beginConfig(); // Committed with the rest of the robot's configuration
             lm.setInverted(lmInvert);
+            // Only read for the detailed SmartDashboard
+            if (
+                Constants.Debug.ENABLE &&
+                Constants.Debug.DETAILED_SMART_DASHBOARD
+            ) lm.setTelemetryProfile(
+                TelemetryProfile.NORMAL,
+                Signal.POSITION,
+                Signal.TEMPERATURE,
+                Signal.SUPPLY_CURRENT,
+                Signal.STATOR_CURRENT
+            ); else lm.setTelemetryProfile(TelemetryProfile.MINIMAL);
             motors.add(lm);
             GenericController rm = new GenericController(type, rmID);
+            rm.beginConfig();
             rm.setInverted(rmInvert);
+            // The position is used for PID, so it's sent as fast as possible
+            if (
+                Constants.Debug.ENABLE &&
+                Constants.Debug.DETAILED_SMART_DASHBOARD
+            ) rm.setTelemetryProfile(
+                TelemetryProfile.HIGH,
+                Signal.POSITION,
+                Signal.TEMPERATURE,
+                Signal.SUPPLY_CURRENT,
+                Signal.STATOR_CURRENT
+            ); else rm.setTelemetryProfile(
+                TelemetryProfile.HIGH,
+                Signal.POSITION
+            );
             motors.add(rm);
+            if (
+                Constants.Debug.ENABLE &&
+                Constants.Debug.DETAILED_SMART_DASHBOARD
+            ) {
+                MotorTelemetry.add(
+                    "Rotation Left Motor",
+                    lm,
+                    Tier.ON_DEMAND,
+                    Signal.POSITION,
+                    Signal.TEMPERATURE,
+                    Signal.SUPPLY_CURRENT,
+                    Signal.STATOR_CURRENT
+                );
+                MotorTelemetry.add(
+                    "Rotation Right Motor",
+                    rm,
+                    Tier.ON_DEMAND,
+                    Signal.POSITION,
+                    Signal.TEMPERATURE,
+                    Signal.SUPPLY_CURRENT,
+                    Signal.STATOR_CURRENT
+                );
+            }
             positionalMotor = rm; // The second (right) motor is the motor we get the position from
+            lm.follow(rm); // The positional motor leads, so closed-loop control only needs to run on it
+            TelemetryScheduler.add(
+                "Rotation Primary Position",
+                Tier.FAST,
+                this::getPosition
+            );
         }
 
         /** Create a new RotationSubsystem.
@@ -101,13 +161,28 @@ public class IntakeSubsystems {
             return this;
         }
 
-        /** Set the neutral mode
+        /** Set the speed of the motors
          * @param speed The speed to set the motors to
          */
         public void setMotors(double speed) {
-            for (GenericController motor : motors) {
-                motor.set(speed);
-            }
+            positionalMotor.set(speed); // The other motor follows the positional motor
+        }
+
+        /** Configure the gains used for closed-loop position control on the positional motor (which the other follows).
+         * @param p The proportional gain
+         * @param i The integral gain
+         * @param d The derivative gain
+         * @param iMax The maximum value of the integral term
+         */
+        public void setPID(double p, double i, double d, double iMax) {
+            positionalMotor.setPID(p, i, d, iMax);
+        }
+
+        /** Move to a position, using closed-loop control on the positional motor (see {@link #setPID}).
+         * @param position The position to move to, in raw encoder units
+         */
+        public void setTargetPosition(double position) {
+            positionalMotor.set(ControlMode.POSITION, position);
         }
 
         /** Get the position of the positional motor (right/second)
@@ -117,6 +192,13 @@ public class IntakeSubsystems {
             return positionalMotor.getPosition();
         }
 
+        /** Get the latest position of the positional motor (right/second), for PID loops running on their own thread
+         * @return The position of the positional motor, in raw encoder units
+         */
+        public double getRealtimePosition() {
+            return positionalMotor.getRealtimePosition();
+        }
+
         /** Set the position of the motors
          * @param position The position to set the motors to, in raw encoder units
          */
@@ -126,53 +208,9 @@ public class IntakeSubsystems {
             }
         }
 
-        @Override
-        public void periodic() {
-            SmartDashboard.putNumber(
-                "Rotation Primary Position",
-                getPosition()
-            );
-            if (
-                Constants.Debug.ENABLE &&
-                Constants.Debug.DETAILED_SMART_DASHBOARD
-            ) {
-                SmartDashboard.putNumber(
-                    "Rotation Left Motor Position",
-                    motors.get(0).getPosition()
-                );
-                SmartDashboard.putNumber(
-                    "Rotation Right Motor Position",
-                    motors.get(1).getPosition()
-                );
-                SmartDashboard.putNumber(
-                    "Rotation Left Motor Temperature",
-                    motors.get(0).getTemperature()
-                );
-                SmartDashboard.putNumber(
-                    "Rotation Right Motor Temperature",
-                    motors.get(1).getTemperature()
-                );
-                SmartDashboard.putNumber(
-                    "Rotation Left Motor Supply Current",
-                    motors.get(0).getSupplyCurrent()
-                );
-                SmartDashboard.putNumber(
-                    "Rotation Right Motor Supply Current",
-                    motors.get(1).getSupplyCurrent()
-                );
-                SmartDashboard.putNumber(
-                    "Rotation Left Motor Stator Current",
-                    motors.get(0).getStatorCurrent()
-                );
-                SmartDashboard.putNumber(
-                    "Rotation Right Motor Stator Current",
-                    motors.get(1).getStatorCurrent()
-                );
-            }
-        }
     }
 
-    public static class FeederSubsystem extends SubsystemBase {
+    public static class FeederSubsystem extends ProfiledSubsystemBase {
 
         final GenericController motor;
 
@@ -183,7 +221,17 @@ public class IntakeSubsystems {
          */
         public FeederSubsystem(BaseController type, int mID, boolean invert) {
             motor = new GenericController(type, mID);
+            motor.beginConfig(); // Committed with the rest of the robot's configuration
             motor.setInverted(invert);
+            motor.setTelemetryProfile(TelemetryProfile.MINIMAL); // Nothing is read from the feeder
+            if (
+                Constants.Debug.ENABLE &&
+                Constants.Debug.DETAILED_SMART_DASHBOARD
+            ) TelemetryScheduler.add(
+                "Feeder Motor Speed",
+                Tier.ON_DEMAND,
+                motor::get
+            );
         }
 
         /** Set the supply current limit
@@ -192,15 +240,5 @@ public class IntakeSubsystems {
         public void setMotor(double speed) {
             motor.set(speed);
         }
-
-        @Override
-        public void periodic() {
-            if (
-                Constants.Debug.ENABLE &&
-                Constants.Debug.DETAILED_SMART_DASHBOARD
-            ) {
-                SmartDashboard.putNumber("Feeder Motor Speed", motor.get());
-            }
-        }
     }
 }
@@ -1,13 +1,14 @@
 package frc.robot.subsystems;
 
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
 import frc.robot.util.GenericController;
 import frc.robot.util.GenericController.BaseController;
+import frc.robot.util.GenericController.TelemetryProfile;
+import frc.robot.util.TelemetryScheduler;
+import frc.robot.util.TelemetryScheduler.Tier;
 import java.util.ArrayList;
 
-public class OuttakeSubsystem extends SubsystemBase {
+public class OuttakeSubsystem extends ProfiledSubsystemBase {
 
     final ArrayList<GenericController> motors = new ArrayList<>();
 
@@ -26,11 +27,30 @@ public class OuttakeSubsystem extends SubsystemBase {
         boolean m2Invert
     ) {
         GenericController motor1 = new GenericController(type, m1ID);
+        motor1.beginConfig(); // Committed with the rest of the robot's configuration
         motor1.setInverted(m1Invert);
+        motor1.setTelemetryProfile(TelemetryProfile.MINIMAL); // Nothing is read from the flywheels
         motors.add(motor1);
         GenericController motor2 = new GenericController(type, m2ID);
+        motor2.beginConfig();
         motor2.setInverted(m2Invert);
+        motor2.setTelemetryProfile(TelemetryProfile.MINIMAL);
         motors.add(motor2);
+        motor2.follow(motor1);
+        if (
+            Constants.Debug.ENABLE && Constants.Debug.DETAILED_SMART_DASHBOARD
+        ) {
+            TelemetryScheduler.add(
+                "Outtake Motor 1 Speed",
+                Tier.ON_DEMAND,
+                motor1::get
+            );
+            TelemetryScheduler.add(
+                "Outtake Motor 2 Speed",
+                Tier.ON_DEMAND,
+                motor2::get
+            );
+        }
     }
 
     /** Set the supply current limit
@@ -61,24 +81,6 @@ public class OuttakeSubsystem extends SubsystemBase {
      * @param speed The speed to set the motors to
      */
     public void setMotors(double speed) {
-        for (GenericController motor : motors) {
-            motor.set(speed);
-        }
-    }
-
-    @Override
-    public void periodic() {
-        if (
-            Constants.Debug.ENABLE && Constants.Debug.DETAILED_SMART_DASHBOARD
-        ) {
-            SmartDashboard.putNumber(
-                "Outtake Motor 1 Speed",
-                motors.get(0).get()
-            );
-            SmartDashboard.putNumber(
-                "Outtake Motor 2 Speed",
-                motors.get(1).get()
-            );
-        }
+        motors.get(0).set(speed); // The second motor follows the first
     }
 }
@@ -0,0 +1,28 @@
+package frc.robot.subsystems;
+
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.util.LoopProfiler;
+
+/**
+ * A {@link SubsystemBase} whose periodic() is timed by the {@link LoopProfiler}, under "SubsystemName.periodic()".
+ * Subclasses override {@link #profiledPeriodic()} instead of periodic().
+ */
+public abstract class ProfiledSubsystemBase extends SubsystemBase {
+
+    private LoopProfiler.Section periodicSection; // Created on first use, so it has the subsystem's final name
+
+    @Override
+    public final void periodic() {
+        if (periodicSection == null) periodicSection = LoopProfiler.section(
+            getName() + ".periodic()"
+        );
+        periodicSection.start();
+        profiledPeriodic();
+        periodicSection.stop();
+    }
+
+    /**
+     * Called once per scheduler run, and timed by the {@link LoopProfiler}. The default does nothing.
+     */
+    protected void profiledPeriodic() {}
+}
@@ -0,0 +1,21 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * A monotonic time source, so time-based code (such as {@link PIDCore}) can run identically on the robot, in
+ * faster-than-real-time simulation, and in benchmarks.
+ */
+@FunctionalInterface
+public interface Clock {
+    /** The FPGA clock, used on the robot (and in WPILib simulation). */
+    Clock FPGA = Timer::getFPGATimestamp;
+
+    /** The JVM's monotonic clock, for use without the HAL. */
+    Clock SYSTEM = () -> System.nanoTime() / 1e9;
+
+    /** Get the current time.
+     * @return The current time, in seconds
+     */
+    double now();
+}
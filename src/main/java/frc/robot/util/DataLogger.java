@@ -0,0 +1,295 @@
+package frc.robot.util;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Binary on-robot logging through WPILib's {@link DataLog}, which is saved to a USB stick if one is plugged in (or the
+ * robot's disk otherwise), so it survives a lost radio link and can be analyzed after a match.
+ * <p>
+ * Records are written into a preallocated ring buffer, which any thread (including Notifier threads) can write to
+ * without locking or allocating. A background thread moves the records into the DataLog, which writes them to the file
+ * on its own thread, so logging never blocks the robot loop on file I/O. If the ring buffer is full, new records are
+ * dropped (and counted) rather than waiting.
+ * <p>
+ * Nothing is recorded until {@link #start()} is called, but entries can be created at any time, such as by constants.
+ */
+public final class DataLogger {
+
+    static final int RING_SIZE = 1 << 14; // Number of records in the ring buffer (must be a power of 2), ~3 s of headroom
+    static final long FLUSH_PERIOD = 20; // Milliseconds between moving the ring buffer's records into the DataLog
+
+    /**
+     * The type of an entry's values.
+     */
+    public enum Type {
+        DOUBLE("double"),
+        BOOLEAN("boolean"),
+        INTEGER("int64"),
+        STRING("string");
+
+        final String name; // The DataLog type string
+
+        Type(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final int MASK = RING_SIZE - 1;
+    // Each slot's sequence: the position it can next be claimed at, or that position + 1 once the record is written
+    private static final AtomicLongArray sequences = new AtomicLongArray(
+        RING_SIZE
+    );
+    private static final int[] entries = new int[RING_SIZE];
+    private static final long[] timestamps = new long[RING_SIZE]; // Microseconds
+    private static final long[] values = new long[RING_SIZE]; // Raw bits of doubles, 0/1 for booleans
+    private static final String[] strings = new String[RING_SIZE];
+    private static final AtomicLong tail = new AtomicLong(), dropped =
+        new AtomicLong();
+    private static long head = 0; // Position of the next record to flush, only used by the flush thread
+
+    // Registered entries, indexed by entry handle
+    private static final ArrayList<String> names = new ArrayList<>();
+    private static final ArrayList<Type> types = new ArrayList<>();
+    private static final HashMap<String, Integer> handles = new HashMap<>();
+    private static final HashMap<String, Integer> commandEntries =
+        new HashMap<>(); // Cache of command entries, only used by the main thread
+
+    private static volatile DataLog log; // null until started
+    // Only used by the flush thread
+    private static int[] logEntries = new int[0]; // DataLog entry of each entry handle, 0 if not started yet
+    private static Type[] logTypes = new Type[0]; // Type of each started entry handle
+    private static int droppedEntry; // Entry handle of the dropped record count
+
+    static {
+        for (int i = 0; i < RING_SIZE; i++) sequences.set(i, i);
+    }
+
+    private DataLogger() {}
+
+    /**
+     * Start logging: open the log file, log the DriverStation (joysticks & match state), log every command's start &
+     * end, and start the flush thread. This should be called once, at the start of robotInit().
+     */
+    public static synchronized void start() {
+        if (log != null) return;
+        DataLogManager.start(); // Also logs NetworkTables, so SmartDashboard & RobotPreferences are already covered
+        DriverStation.startDataLog(DataLogManager.getLog());
+        droppedEntry = entry("DataLogger/Dropped Records", Type.INTEGER);
+        CommandScheduler.getInstance().onCommandInitialize(command ->
+            logCommand(command, true)
+        );
+        CommandScheduler.getInstance().onCommandFinish(command ->
+            logCommand(command, false)
+        );
+        CommandScheduler.getInstance().onCommandInterrupt(command ->
+            logCommand(command, false)
+        );
+        log = DataLogManager.getLog();
+        final Thread thread = new Thread(DataLogger::flushLoop, "DataLogger");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Get the entry to log values to under a name, creating it if it doesn't exist. This should be called once, and
+     * the handle stored.
+     * @param name The name of the entry, such as "PID/Climber/Error"
+     * @param type The type of the entry's values, which must be the same for every use of the name
+     * @return The handle of the entry
+     */
+    public static int entry(String name, Type type) {
+        synchronized (names) {
+            final Integer existing = handles.get(name);
+            if (existing != null) {
+                if (
+                    types.get(existing) != type
+                ) throw new IllegalArgumentException(
+                    "DataLogger entry " +
+                    name +
+                    " already has type " +
+                    types.get(existing)
+                );
+                return existing;
+            }
+            names.add(name);
+            types.add(type);
+            handles.put(name, names.size() - 1);
+            return names.size() - 1;
+        }
+    }
+
+    /** Log a value to a double entry.
+     * @param entry The handle of the entry
+     * @param value The value to log
+     */
+    public static void logDouble(int entry, double value) {
+        append(entry, Double.doubleToRawLongBits(value), null);
+    }
+
+    /** Log a value to a boolean entry.
+     * @param entry The handle of the entry
+     * @param value The value to log
+     */
+    public static void logBoolean(int entry, boolean value) {
+        append(entry, value ? 1 : 0, null);
+    }
+
+    /** Log a value to an integer entry.
+     * @param entry The handle of the entry
+     * @param value The value to log
+     */
+    public static void logInteger(int entry, long value) {
+        append(entry, value, null);
+    }
+
+    /** Log a value already encoded as the raw bits of its entry's type (a double's raw long bits, 1 or 0 for a boolean,
+     * or the integer itself), as stored by the {@link DynamicPrimitive}s.
+     * @param entry The handle of the entry
+     * @param value The raw bits of the value to log
+     */
+    static void logRaw(int entry, long value) {
+        append(entry, value, null);
+    }
+
+    /** Log a value to a string entry. Only a reference to the string is stored, so this doesn't allocate.
+     * @param entry The handle of the entry
+     * @param value The value to log
+     */
+    public static void logString(int entry, String value) {
+        append(entry, 0, value);
+    }
+
+    /** Log whether a command is running, to an entry for the command's name.
+     * @param command The command
+     * @param running Whether the command is running
+     */
+    private static void logCommand(Command command, boolean running) {
+        Integer entry = commandEntries.get(command.getName());
+        if (entry == null) {
+            entry = entry("Commands/" + command.getName(), Type.BOOLEAN);
+            commandEntries.put(command.getName(), entry);
+        }
+        logBoolean(entry, running);
+    }
+
+    /** Write a record into the ring buffer, or drop it if the ring buffer is full. This never blocks.
+     * @param entry The handle of the entry
+     * @param value The value, as raw bits
+     * @param string The value of a string entry, otherwise null
+     */
+    private static void append(int entry, long value, String string) {
+        if (log == null) return;
+        final long timestamp = RobotController.getFPGATime();
+        long position = tail.get();
+        while (true) {
+            final int slot = (int) (position & MASK);
+            final long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) break;
+            } else if (difference < 0) { // The flush thread hasn't read this slot yet, so the ring buffer is full
+                dropped.incrementAndGet();
+                return;
+            } else position = tail.get(); // Another thread claimed this position
+        }
+        final int slot = (int) (position & MASK);
+        entries[slot] = entry;
+        timestamps[slot] = timestamp;
+        values[slot] = value;
+        strings[slot] = string;
+        sequences.set(slot, position + 1); // Publishes the record to the flush thread
+    }
+
+    /**
+     * Move the ring buffer's records into the DataLog every {@link #FLUSH_PERIOD}, until the robot program exits.
+     */
+    private static void flushLoop() {
+        while (true) {
+            flush();
+            try {
+                Thread.sleep(FLUSH_PERIOD);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Move every written record from the ring buffer into the DataLog.
+     */
+    private static void flush() {
+        while (true) {
+            final int slot = (int) (head & MASK);
+            if (sequences.get(slot) != head + 1) break; // Not written yet
+            write(entries[slot], timestamps[slot], values[slot], strings[slot]);
+            strings[slot] = null; // Don't keep the string alive
+            sequences.set(slot, head + RING_SIZE); // Frees the slot for the next lap
+            head++;
+        }
+        final long droppedRecords = dropped.getAndSet(0);
+        if (droppedRecords > 0) logInteger(droppedEntry, droppedRecords);
+    }
+
+    /** Write a record into the DataLog, starting its DataLog entry if needed.
+     * @param entry The handle of the entry
+     * @param timestamp The time of the record, in microseconds
+     * @param value The value, as raw bits
+     * @param string The value of a string entry, otherwise null
+     */
+    private static void write(
+        int entry,
+        long timestamp,
+        long value,
+        String string
+    ) {
+        if (
+            entry >= logEntries.length || logEntries[entry] == 0
+        ) startEntry(entry);
+        switch (logTypes[entry]) {
+            case DOUBLE -> log.appendDouble(
+                logEntries[entry],
+                Double.longBitsToDouble(value),
+                timestamp
+            );
+            case BOOLEAN -> log.appendBoolean(
+                logEntries[entry],
+                value != 0,
+                timestamp
+            );
+            case INTEGER -> log.appendInteger(
+                logEntries[entry],
+                value,
+                timestamp
+            );
+            case STRING -> log.appendString(
+                logEntries[entry],
+                string,
+                timestamp
+            );
+        }
+    }
+
+    /** Start the DataLog entry for an entry handle, the first time it's written.
+     * @param entry The handle of the entry
+     */
+    private static void startEntry(int entry) {
+        if (entry >= logEntries.length) {
+            final int length = Math.max(entry + 1, logEntries.length * 2);
+            logEntries = Arrays.copyOf(logEntries, length);
+            logTypes = Arrays.copyOf(logTypes, length);
+        }
+        synchronized (names) {
+            logTypes[entry] = types.get(entry);
+            logEntries[entry] =
+                log.start(names.get(entry), logTypes[entry].name);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.Preferences;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A boolean that can either be a normal variable, or a dynamic value through RobotPreferences. This is the
+ * {@link DynamicPrimitive} for booleans, which never boxes, for use in control loops.
+ */
+public class DynamicBoolean extends DynamicPrimitive implements BooleanSupplier {
+
+    /** Create a new DynamicBoolean with a normal variable
+     * @param value The value to use
+     */
+    public DynamicBoolean(boolean value) {
+        super(value ? 1 : 0);
+    }
+
+    /** Create a new DynamicBoolean with a RobotPreferences key
+     * @param key The key to use in RobotPreferences
+     * @param defaultValue The default value if key doesn't exist, and fallback on failure to get value
+     */
+    public DynamicBoolean(String key, boolean defaultValue) {
+        this(defaultValue);
+        toPreferences(key);
+    }
+
+    @Override
+    void initPrefValue(String key, long value) {
+        Preferences.initBoolean(key, value != 0);
+    }
+
+    @Override
+    long readPrefValue(String key, long fallback) {
+        return Preferences.getBoolean(key, fallback != 0) ? 1 : 0;
+    }
+
+    @Override
+    void writePrefValue(String key, long value) {
+        Preferences.setBoolean(key, value != 0);
+    }
+
+    @Override
+    Object toBoxed(long value) {
+        return value != 0;
+    }
+
+    @Override
+    long parse(String text) {
+        return Boolean.parseBoolean(text) ? 1 : 0;
+    }
+
+    @Override
+    Class<?> getType() {
+        return boolean.class;
+    }
+
+    /** Get the value of the DynamicBoolean
+     * @return The value of the DynamicBoolean
+     */
+    @Override
+    public boolean getAsBoolean() {
+        return getRaw() != 0;
+    }
+
+    /** Set the value of the DynamicBoolean. When using RobotPreferences, the new value is used immediately, and written to
+     * RobotPreferences later by the {@link PreferenceWriter}.
+     * @param value The value to set the DynamicBoolean to
+     */
+    public void set(boolean value) {
+        setRaw(value ? 1 : 0);
+    }
+}
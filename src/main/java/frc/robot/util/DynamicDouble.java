@@ -0,0 +1,75 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.Preferences;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A double that can either be a normal variable, or a dynamic value through RobotPreferences. This is the
+ * {@link DynamicPrimitive} for doubles, which never boxes, for use in control loops.
+ */
+public class DynamicDouble extends DynamicPrimitive implements DoubleSupplier {
+
+    /** Create a new DynamicDouble with a normal variable
+     * @param value The value to use
+     */
+    public DynamicDouble(double value) {
+        super(Double.doubleToRawLongBits(value));
+    }
+
+    /** Create a new DynamicDouble with a RobotPreferences key
+     * @param key The key to use in RobotPreferences
+     * @param defaultValue The default value if key doesn't exist, and fallback on failure to get value
+     */
+    public DynamicDouble(String key, double defaultValue) {
+        this(defaultValue);
+        toPreferences(key);
+    }
+
+    @Override
+    void initPrefValue(String key, long value) {
+        Preferences.initDouble(key, Double.longBitsToDouble(value));
+    }
+
+    @Override
+    long readPrefValue(String key, long fallback) {
+        return Double.doubleToRawLongBits(
+            Preferences.getDouble(key, Double.longBitsToDouble(fallback))
+        );
+    }
+
+    @Override
+    void writePrefValue(String key, long value) {
+        Preferences.setDouble(key, Double.longBitsToDouble(value));
+    }
+
+    @Override
+    Object toBoxed(long value) {
+        return Double.longBitsToDouble(value);
+    }
+
+    @Override
+    long parse(String text) {
+        return Double.doubleToRawLongBits(Double.parseDouble(text));
+    }
+
+    @Override
+    Class<?> getType() {
+        return double.class;
+    }
+
+    /** Get the value of the DynamicDouble
+     * @return The value of the DynamicDouble
+     */
+    @Override
+    public double getAsDouble() {
+        return Double.longBitsToDouble(getRaw());
+    }
+
+    /** Set the value of the DynamicDouble. When using RobotPreferences, the new value is used immediately, and written to
+     * RobotPreferences later by the {@link PreferenceWriter}.
+     * @param value The value to set the DynamicDouble to
+     */
+    public void set(double value) {
+        setRaw(Double.doubleToRawLongBits(value));
+    }
+}
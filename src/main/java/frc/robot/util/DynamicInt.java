@@ -0,0 +1,73 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.Preferences;
+import java.util.function.IntSupplier;
+
+/**
+ * An int that can either be a normal variable, or a dynamic value through RobotPreferences. This is the
+ * {@link DynamicPrimitive} for ints, which never boxes, for use in control loops.
+ */
+public class DynamicInt extends DynamicPrimitive implements IntSupplier {
+
+    /** Create a new DynamicInt with a normal variable
+     * @param value The value to use
+     */
+    public DynamicInt(int value) {
+        super(value);
+    }
+
+    /** Create a new DynamicInt with a RobotPreferences key
+     * @param key The key to use in RobotPreferences
+     * @param defaultValue The default value if key doesn't exist, and fallback on failure to get value
+     */
+    public DynamicInt(String key, int defaultValue) {
+        this(defaultValue);
+        toPreferences(key);
+    }
+
+    @Override
+    void initPrefValue(String key, long value) {
+        Preferences.initInt(key, (int) value);
+    }
+
+    @Override
+    long readPrefValue(String key, long fallback) {
+        return Preferences.getInt(key, (int) fallback);
+    }
+
+    @Override
+    void writePrefValue(String key, long value) {
+        Preferences.setInt(key, (int) value);
+    }
+
+    @Override
+    Object toBoxed(long value) {
+        return (int) value;
+    }
+
+    @Override
+    long parse(String text) {
+        return Integer.parseInt(text);
+    }
+
+    @Override
+    Class<?> getType() {
+        return int.class;
+    }
+
+    /** Get the value of the DynamicInt
+     * @return The value of the DynamicInt
+     */
+    @Override
+    public int getAsInt() {
+        return (int) getRaw();
+    }
+
+    /** Set the value of the DynamicInt. When using RobotPreferences, the new value is used immediately, and written to
+     * RobotPreferences later by the {@link PreferenceWriter}.
+     * @param value The value to set the DynamicInt to
+     */
+    public void set(int value) {
+        setRaw(value);
+    }
+}
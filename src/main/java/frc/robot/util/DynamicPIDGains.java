@@ -0,0 +1,247 @@
+package frc.robot.util;
+
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Preferences;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A group of PID gains (P, I, D and IMax) stored in RobotPreferences, under the keys name + "P", "I", "D" and "IMax".
+ * <p>
+ * The gains are kept in a single immutable, versioned {@link PIDGains} snapshot, which is rebuilt and swapped in
+ * whenever a NetworkTables listener reports one of the keys has changed. Reading the gains with {@link #get()} is a
+ * single volatile load, and can never mix old and new values.
+ * <p>
+ * {@link #forName(String, double, double, double, double)} shares one DynamicPIDGains per name, so every command using
+ * a name shares its RobotPreferences keys & listeners, instead of each one initializing & listening to them again.
+ * <p>
+ * Every change to the gains (whether set in code or through NetworkTables) is logged by the {@link DataLogger}, under
+ * "Preferences/" + each key.
+ */
+public class DynamicPIDGains {
+
+    private static final HashMap<String, DynamicPIDGains> shared = new HashMap<>(); // Created by forName(), by name
+    private static final AtomicLong changes = new AtomicLong(); // Number of times any gains have changed, see changeCount()
+
+    private final String pKey, iKey, dKey, iMaxKey;
+    private final int pEntry, iEntry, dEntry, iMaxEntry; // DataLogger entries of the keys
+    private volatile PIDGains gains;
+    private boolean writePending = false; // Whether set gains haven't been written to RobotPreferences yet, guarded by this
+
+    /** Create a new DynamicPIDGains, seeding the RobotPreferences keys from the startup snapshot, or initializing them
+     * if they don't already exist.
+     * @param name The name of the gains, used as the prefix of the RobotPreferences keys
+     * @param defaultP The default P value
+     * @param defaultI The default I value
+     * @param defaultD The default D value
+     * @param defaultIMax The default I max value (the maximum value of the integral term)
+     */
+    public DynamicPIDGains(
+        String name,
+        double defaultP,
+        double defaultI,
+        double defaultD,
+        double defaultIMax
+    ) {
+        pKey = name + "P";
+        iKey = name + "I";
+        dKey = name + "D";
+        iMaxKey = name + "IMax";
+        pEntry =
+            DataLogger.entry("Preferences/" + pKey, DataLogger.Type.DOUBLE);
+        iEntry =
+            DataLogger.entry("Preferences/" + iKey, DataLogger.Type.DOUBLE);
+        dEntry =
+            DataLogger.entry("Preferences/" + dKey, DataLogger.Type.DOUBLE);
+        iMaxEntry =
+            DataLogger.entry("Preferences/" + iMaxKey, DataLogger.Type.DOUBLE);
+        gains =
+            new PIDGains(
+                seed(pKey, defaultP),
+                seed(iKey, defaultI),
+                seed(dKey, defaultD),
+                seed(iMaxKey, defaultIMax),
+                0
+            );
+        log(gains); // The starting gains, which the logged changes follow
+        for (String key : new String[] { pKey, iKey, dKey, iMaxKey }) {
+            NetworkTableInstance
+                .getDefault()
+                .addListener(
+                    Preferences.getNetworkTable().getTopic(key),
+                    EnumSet.of(NetworkTableEvent.Kind.kValueAll),
+                    event -> refresh()
+                );
+        }
+        DynamicValueRegistry.register(
+            pKey,
+            double.class,
+            defaultP,
+            () -> gains.p,
+            text -> {
+                final PIDGains gains = this.gains;
+                set(Double.parseDouble(text), gains.i, gains.d, gains.iMax);
+            }
+        );
+        DynamicValueRegistry.register(
+            iKey,
+            double.class,
+            defaultI,
+            () -> gains.i,
+            text -> {
+                final PIDGains gains = this.gains;
+                set(gains.p, Double.parseDouble(text), gains.d, gains.iMax);
+            }
+        );
+        DynamicValueRegistry.register(
+            dKey,
+            double.class,
+            defaultD,
+            () -> gains.d,
+            text -> {
+                final PIDGains gains = this.gains;
+                set(gains.p, gains.i, Double.parseDouble(text), gains.iMax);
+            }
+        );
+        DynamicValueRegistry.register(
+            iMaxKey,
+            double.class,
+            defaultIMax,
+            () -> gains.iMax,
+            text -> {
+                final PIDGains gains = this.gains;
+                set(gains.p, gains.i, gains.d, Double.parseDouble(text));
+            }
+        );
+    }
+
+    /** Get the starting value of a RobotPreferences key. A value in the startup snapshot is written straight to the key,
+     * otherwise the key is initialized if it doesn't already exist, and read.
+     * @param key The RobotPreferences key
+     * @param defaultValue The default value, used if the key doesn't exist
+     * @return The starting value
+     */
+    private static double seed(String key, double defaultValue) {
+        final String text = DynamicValueRegistry.getSnapshotValue(key);
+        if (text != null) {
+            try {
+                final double value = Double.parseDouble(text);
+                Preferences.setDouble(key, value);
+                return value;
+            } catch (NumberFormatException e) {
+                DynamicValueRegistry.printInvalid(key, double.class, text);
+            }
+        }
+        Preferences.initDouble(key, defaultValue);
+        return Preferences.getDouble(key, defaultValue);
+    }
+
+    /** Get the shared DynamicPIDGains for a name, creating it the first time the name is used. The defaults are only
+     * used when it's created.
+     * @param name The name of the gains, used as the prefix of the RobotPreferences keys
+     * @param defaultP The default P value
+     * @param defaultI The default I value
+     * @param defaultD The default D value
+     * @param defaultIMax The default I max value (the maximum value of the integral term)
+     * @return The shared DynamicPIDGains for the name
+     */
+    public static DynamicPIDGains forName(
+        String name,
+        double defaultP,
+        double defaultI,
+        double defaultD,
+        double defaultIMax
+    ) {
+        synchronized (shared) {
+            return shared.computeIfAbsent(
+                name,
+                key ->
+                    new DynamicPIDGains(
+                        key,
+                        defaultP,
+                        defaultI,
+                        defaultD,
+                        defaultIMax
+                    )
+            );
+        }
+    }
+
+    /**
+     * Rebuild the snapshot from the RobotPreferences keys, only swapping it in (with a new version) if a gain changed.
+     * While set gains are waiting to be written, the keys still hold older gains, so they're ignored instead of
+     * overwriting the new gains.
+     */
+    synchronized void refresh() {
+        if (writePending) return;
+        final PIDGains old = gains;
+        final double p = Preferences.getDouble(pKey, old.p), i =
+            Preferences.getDouble(iKey, old.i), d =
+            Preferences.getDouble(dKey, old.d), iMax =
+            Preferences.getDouble(iMaxKey, old.iMax);
+        if (old.equals(p, i, d, iMax)) return;
+        gains = new PIDGains(p, i, d, iMax, old.version + 1);
+        changes.incrementAndGet();
+        log(gains);
+    }
+
+    /** Log the gains to the DataLogger.
+     * @param gains The gains to log
+     */
+    private void log(PIDGains gains) {
+        DataLogger.logDouble(pEntry, gains.p);
+        DataLogger.logDouble(iEntry, gains.i);
+        DataLogger.logDouble(dEntry, gains.d);
+        DataLogger.logDouble(iMaxEntry, gains.iMax);
+    }
+
+    /** Get the number of times any DynamicPIDGains have changed. It's incremented after the new snapshot is swapped in,
+     * so gains read after reading the count are at least as new as the count.
+     * @return The number of changes so far
+     */
+    static long changeCount() {
+        return changes.get();
+    }
+
+    /** Get the current snapshot of the gains.
+     * @return The current gains
+     */
+    public PIDGains get() {
+        return gains;
+    }
+
+    /** Set all of the gains at once. The new snapshot is visible immediately, and the RobotPreferences keys are written
+     * together later by the {@link PreferenceWriter}.
+     * @param p The P value
+     * @param i The I value
+     * @param d The D value
+     * @param iMax The I max value (the maximum value of the integral term)
+     */
+    public void set(double p, double i, double d, double iMax) {
+        synchronized (this) {
+            final PIDGains old = gains;
+            if (old.equals(p, i, d, iMax)) return;
+            gains = new PIDGains(p, i, d, iMax, old.version + 1);
+            writePending = true;
+            changes.incrementAndGet();
+            log(gains);
+        }
+        // Queued outside of the lock, as the PreferenceWriter holds its own lock while taking ours to write
+        PreferenceWriter.write(pKey, this::writePrefValues);
+    }
+
+    /**
+     * Write the current snapshot to the RobotPreferences keys. This holds the lock, so the listeners can't see (and
+     * swap in) a partially written set of gains.
+     */
+    private synchronized void writePrefValues() {
+        final PIDGains gains = this.gains;
+        Preferences.setDouble(pKey, gains.p);
+        Preferences.setDouble(iKey, gains.i);
+        Preferences.setDouble(dKey, gains.d);
+        Preferences.setDouble(iMaxKey, gains.iMax);
+        writePending = false;
+    }
+}
@@ -0,0 +1,219 @@
+package frc.robot.util;
+
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Preferences;
+import java.util.EnumSet;
+
+/**
+ * The shared base of the dynamic values ({@link DynamicDouble}, {@link DynamicBoolean} and {@link DynamicInt}), which
+ * can either be normal variables, or dynamic values through RobotPreferences, and never box their value.
+ * <p>
+ * The value is stored as raw bits in a single volatile field, which is either the variable itself, or the cached value
+ * of the RobotPreferences key. The cache is kept up to date by a NetworkTables listener, so reading the value is always
+ * a plain field read. The listener, setting, and write-behind logic all live here, so each subclass only converts its
+ * type to & from the raw bits, and reads & writes its type in RobotPreferences.
+ * <p>
+ * While using RobotPreferences, every change to the value (whether set in code or through NetworkTables) is logged by
+ * the {@link DataLogger}, under "Preferences/" + the key.
+ */
+public abstract class DynamicPrimitive {
+
+    private volatile String key; // Read by the listener thread
+    private int logEntry; // DataLogger entry of the RobotPreferences key, set before the key (so it's visible with it)
+    private volatile long value; // The value's raw bits, as converted by the subclass
+    private int listener = 0; // Handle of the NetworkTables listener on the RobotPreferences key (0 when unused)
+    private DynamicValueRegistry.Entry registration; // null when unused
+    private boolean writePending = false; // Whether a set value hasn't been written to RobotPreferences yet, guarded by this
+
+    /** Create a new DynamicPrimitive with a normal variable.
+     * @param value The raw bits of the value to use
+     */
+    DynamicPrimitive(long value) {
+        this.value = value;
+    }
+
+    /** Initialize a RobotPreferences key, if it doesn't already exist.
+     * @param key The RobotPreferences key
+     * @param value The raw bits of the default value
+     */
+    abstract void initPrefValue(String key, long value);
+
+    /** Read a RobotPreferences key.
+     * @param key The RobotPreferences key
+     * @param fallback The raw bits of the value to use if the key can't be read
+     * @return The raw bits of the value of the key
+     */
+    abstract long readPrefValue(String key, long fallback);
+
+    /** Set a RobotPreferences key.
+     * @param key The RobotPreferences key
+     * @param value The raw bits of the value to set
+     */
+    abstract void writePrefValue(String key, long value);
+
+    /** Convert raw bits to the boxed value. Only used for the {@link DynamicValueRegistry}, never in the hot path.
+     * @param value The raw bits of the value
+     * @return The boxed value
+     */
+    abstract Object toBoxed(long value);
+
+    /** Parse a value from text, as written to a snapshot by the {@link DynamicValueRegistry}.
+     * @param text The text to parse
+     * @return The raw bits of the parsed value
+     */
+    abstract long parse(String text);
+
+    /** Get the primitive type of the value, for the {@link DynamicValueRegistry}.
+     * @return The primitive type
+     */
+    abstract Class<?> getType();
+
+    /** Get the DataLogger type to log the value as, which stores the same raw bits.
+     * @return The DataLogger type
+     */
+    private DataLogger.Type getLogType() {
+        if (getType() == double.class) return DataLogger.Type.DOUBLE;
+        if (getType() == boolean.class) return DataLogger.Type.BOOLEAN;
+        return DataLogger.Type.INTEGER;
+    }
+
+    /** Get the raw bits of the current value.
+     * @return The raw bits of the current value
+     */
+    final long getRaw() {
+        return value;
+    }
+
+    /** Set the value. When using RobotPreferences, the new value is used immediately, and written to RobotPreferences
+     * later by the {@link PreferenceWriter}.
+     * @param value The raw bits of the value to set
+     */
+    final void setRaw(long value) {
+        final String key = this.key;
+        synchronized (this) {
+            this.value = value;
+            if (key != null) {
+                writePending = true;
+                DataLogger.logRaw(logEntry, value);
+            }
+        }
+        // Queued outside of the lock, as the PreferenceWriter holds its own lock while taking ours to write
+        if (key != null) PreferenceWriter.write(key, this::persist);
+    }
+
+    /**
+     * Update the value from the RobotPreferences key, keeping the current value as fallback.
+     */
+    private void refresh() {
+        value = readPrefValue(key, value);
+    }
+
+    /**
+     * Set the RobotPreferences key to the current value.
+     */
+    private synchronized void persist() {
+        if (key == null) return; // Converted to a variable after the write was queued
+        writePrefValue(key, value);
+        writePending = false;
+    }
+
+    /**
+     * Called by the listener when the RobotPreferences key changes. While a set value is waiting to be written, the key
+     * still holds an older value, so it's ignored instead of overwriting the new value.
+     */
+    synchronized void onPrefValueChanged() {
+        // The listener runs on its own thread, so it may fire just after we've converted to a variable
+        if (key == null || writePending) return;
+        final long old = value;
+        refresh();
+        if (value != old) DataLogger.logRaw(logEntry, value);
+    }
+
+    /** Convert the value to use a RobotPreferences key.
+     * <p>
+     * If the key doesn't exist, the current value will be used as the default value.
+     * If the key does exist, the current value is ABANDONED and the value of the key is used.
+     * @param key The key to use in RobotPreferences
+     */
+    public void toPreferences(String key) {
+        toPreferences(key, false);
+    }
+
+    /** Convert the value to use a RobotPreferences key.
+     * <p>
+     * If the key doesn't exist, the current value will be used as the default value.
+     * If the key does exist, the behaviour depends on the replace parameter.
+     * In either case, a value for the key in the startup snapshot takes priority, see {@link DynamicValueRegistry}.
+     * @param key The key to use in RobotPreferences
+     * @param replace Whether to replace the RobotPreferences key with the current value if it already exists
+     */
+    public void toPreferences(String key, boolean replace) {
+        if (this.key != null) throw new IllegalStateException(
+            "DynamicValue is already using RobotPreferences."
+        );
+        logEntry = DataLogger.entry("Preferences/" + key, getLogType());
+        this.key = key;
+        final Object defaultValue = toBoxed(value);
+        if (!seedFromSnapshot(key)) {
+            if (replace) persist(); else {
+                initPrefValue(key, value);
+                refresh();
+            }
+        }
+        DataLogger.logRaw(logEntry, value); // The starting value, which the logged changes follow
+        listener =
+            NetworkTableInstance
+                .getDefault()
+                .addListener(
+                    Preferences.getNetworkTable().getTopic(key),
+                    EnumSet.of(NetworkTableEvent.Kind.kValueAll),
+                    event -> onPrefValueChanged()
+                );
+        registration =
+            DynamicValueRegistry.register(
+                key,
+                getType(),
+                defaultValue,
+                () -> toBoxed(value),
+                text -> setRaw(parse(text))
+            );
+    }
+
+    /** Seed the value from the startup snapshot, writing it straight to the RobotPreferences key instead of
+     * initializing the key. This isn't a change, so it isn't queued with the {@link PreferenceWriter}.
+     * @param key The RobotPreferences key
+     * @return Whether the snapshot had a valid value for the key
+     */
+    private boolean seedFromSnapshot(String key) {
+        final String text = DynamicValueRegistry.getSnapshotValue(key);
+        if (text == null) return false;
+        try {
+            value = parse(text);
+        } catch (IllegalArgumentException e) {
+            DynamicValueRegistry.printInvalid(key, getType(), text);
+            return false;
+        }
+        writePrefValue(key, value);
+        return true;
+    }
+
+    /**
+     * Convert the value to use a normal variable. The variable is set to the current value of the RobotPreferences key.
+     */
+    public void toVariable() {
+        if (key == null) throw new IllegalStateException(
+            "DynamicValue is already using a variable."
+        );
+        NetworkTableInstance.getDefault().removeListener(listener);
+        listener = 0;
+        DynamicValueRegistry.unregister(registration);
+        registration = null;
+        PreferenceWriter.cancel(key); // The value already includes any pending write
+        Preferences.remove(key);
+        synchronized (this) {
+            key = null;
+            writePending = false;
+        }
+    }
+}
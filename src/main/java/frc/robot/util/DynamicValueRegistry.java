@@ -0,0 +1,226 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.Filesystem;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A central registry of every live dynamic value using RobotPreferences (the {@link DynamicPrimitive} variants, and
+ * {@link DynamicPIDGains}), with its type, default value, and current value.
+ * <p>
+ * The whole set of values can be exported to, and imported from, a single snapshot file in the deploy directory. The
+ * snapshot is read once at startup by {@link #loadSnapshot()}, before any values are created, and each value is seeded
+ * from it as it's created: a key in the snapshot is written once with its snapshot value, instead of being initialized,
+ * read back, and then set again. This makes tuning loads between matches fast and reproducible.
+ */
+public final class DynamicValueRegistry {
+
+    static final String SNAPSHOT_FILE = "tuning.properties"; // Snapshot file name, in the deploy directory
+
+    /**
+     * A registered dynamic value.
+     */
+    public static final class Entry {
+
+        public final String key;
+        public final Class<?> type;
+        public final Object defaultValue;
+        private final Supplier<Object> current;
+        private final Consumer<String> apply;
+
+        private Entry(
+            String key,
+            Class<?> type,
+            Object defaultValue,
+            Supplier<Object> current,
+            Consumer<String> apply
+        ) {
+            this.key = key;
+            this.type = type;
+            this.defaultValue = defaultValue;
+            this.current = current;
+            this.apply = apply;
+        }
+
+        /** Get the current value.
+         * @return The current value
+         */
+        public Object get() {
+            return current.get();
+        }
+    }
+
+    // Every registration of each key, as values can share a key. Sorted, so exports are stable
+    private static final TreeMap<String, ArrayList<Entry>> entries = new TreeMap<>();
+    private static final Properties snapshot = new Properties(); // Values loaded at startup, used to seed new values
+
+    private DynamicValueRegistry() {}
+
+    /** Register a dynamic value. It should already have been seeded from the startup snapshot, see
+     * {@link #getSnapshotValue(String)}. Values sharing a key are all registered, and the key stays registered until
+     * every one of them has been unregistered.
+     * @param key The RobotPreferences key of the value
+     * @param type The type of the value
+     * @param defaultValue The default value
+     * @param current A function that returns the current value
+     * @param apply A function that sets the value from its string form
+     * @return The entry, to unregister it with
+     */
+    static Entry register(
+        String key,
+        Class<?> type,
+        Object defaultValue,
+        Supplier<Object> current,
+        Consumer<String> apply
+    ) {
+        final Entry entry = new Entry(key, type, defaultValue, current, apply);
+        synchronized (entries) {
+            entries.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+        }
+        return entry;
+    }
+
+    /** Get the value of a key in the startup snapshot, so a dynamic value can be seeded from it as it's created.
+     * @param key The RobotPreferences key of the value
+     * @return The string form of the snapshot value, or null if the snapshot doesn't contain the key
+     */
+    static String getSnapshotValue(String key) {
+        return snapshot.getProperty(key);
+    }
+
+    /** Unregister a dynamic value, when it stops using RobotPreferences. Other values registered with the same key stay
+     * registered.
+     * @param entry The entry returned when the value was registered
+     */
+    static void unregister(Entry entry) {
+        synchronized (entries) {
+            final ArrayList<Entry> owners = entries.get(entry.key);
+            if (owners == null) return;
+            owners.remove(entry);
+            if (owners.isEmpty()) entries.remove(entry.key);
+        }
+    }
+
+    /** Get every registered dynamic value, sorted by key. For keys shared by several values, only the first is included.
+     * @return The registered values
+     */
+    public static Collection<Entry> getEntries() {
+        final ArrayList<Entry> values = new ArrayList<>();
+        synchronized (entries) {
+            for (ArrayList<Entry> owners : entries.values()) values.add(
+                owners.get(0)
+            );
+        }
+        return values;
+    }
+
+    /**
+     * Read the snapshot file, so values are seeded from it as they're created. This should be called once at startup,
+     * before any dynamic values are created.
+     */
+    public static void loadSnapshot() {
+        final File file = getSnapshotFile();
+        if (!file.exists()) return;
+        try (Reader reader = new FileReader(file)) {
+            snapshot.load(reader);
+            System.out.println(
+                "Loaded " + snapshot.size() + " tuning values from " + file
+            );
+        } catch (IOException e) {
+            System.out.println(
+                "ERROR: Failed to load tuning snapshot: " + e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Write the current value of every registered dynamic value to the snapshot file.
+     */
+    public static void exportSnapshot() {
+        final Properties values = new Properties();
+        for (Entry entry : getEntries()) values.setProperty(
+            entry.key,
+            String.valueOf(entry.get())
+        );
+        final File file = getSnapshotFile();
+        try (Writer writer = new FileWriter(file)) {
+            values.store(writer, "Tuning snapshot");
+            System.out.println(
+                "Exported " + values.size() + " tuning values to " + file
+            );
+        } catch (IOException e) {
+            System.out.println(
+                "ERROR: Failed to export tuning snapshot: " + e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Read the snapshot file, and apply it to every registered dynamic value it contains.
+     */
+    public static void importSnapshot() {
+        final Properties values = new Properties();
+        try (Reader reader = new FileReader(getSnapshotFile())) {
+            values.load(reader);
+        } catch (IOException e) {
+            System.out.println(
+                "ERROR: Failed to import tuning snapshot: " + e.getMessage()
+            );
+            return;
+        }
+        int applied = 0;
+        for (Entry entry : getEntries()) {
+            final String value = values.getProperty(entry.key);
+            if (value != null && apply(entry, value)) applied++;
+        }
+        System.out.println("Imported " + applied + " tuning values");
+    }
+
+    /** Apply a value from its string form, printing an error if it can't be parsed.
+     * @param entry The entry to apply the value to
+     * @param value The string form of the value
+     * @return Whether the value was applied
+     */
+    private static boolean apply(Entry entry, String value) {
+        try {
+            entry.apply.accept(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            printInvalid(entry.key, entry.type, value);
+            return false;
+        }
+    }
+
+    /** Print an error for a snapshot value that can't be parsed.
+     * @param key The RobotPreferences key of the value
+     * @param type The type of the value
+     * @param value The string form of the value
+     */
+    static void printInvalid(String key, Class<?> type, String value) {
+        System.out.println(
+            "ERROR: Invalid tuning value for " +
+            key +
+            " (" +
+            type.getSimpleName() +
+            "): " +
+            value
+        );
+    }
+
+    /** Get the snapshot file.
+     * @return The snapshot file, in the deploy directory
+     */
+    private static File getSnapshotFile() {
+        return new File(Filesystem.getDeployDirectory(), SNAPSHOT_FILE);
+    }
+}
@@ -0,0 +1,170 @@
+package frc.robot.util;
+
+import java.util.Arrays;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A gain schedule for a PID: a set of {@link DynamicPIDGains}, each used at a point of a scheduling variable (such as
+ * the measurement, the setpoint, or a load signal like stator current), with the gains linearly interpolated between
+ * the points. Outside of the points, the gains of the closest point are used.
+ * <p>
+ * The interpolation is precomputed into a table of primitive gains, uniformly spaced over the points, so each lookup is
+ * a multiply and an array read no matter how many points there are. The table is rebuilt (on the calling thread) only
+ * when any {@link DynamicPIDGains} has changed, which is checked with a single read of
+ * {@link DynamicPIDGains#changeCount()} instead of checking every point.
+ */
+public class GainSchedule {
+
+    static final int TABLE_SIZE = 128; // Number of uniformly spaced entries in the precomputed table
+
+    /**
+     * A precomputed table, which is never modified once built, so it can be swapped in for other threads.
+     */
+    private static final class Table {
+
+        final double min, scale; // Scheduling variable of the first entry, and entries per unit of the variable
+        final double[] p = new double[TABLE_SIZE], i =
+            new double[TABLE_SIZE], d = new double[TABLE_SIZE], iMax =
+            new double[TABLE_SIZE];
+        final long changes; // DynamicPIDGains.changeCount() before the table was built
+
+        Table(double min, double max, long changes) {
+            this.min = min;
+            this.scale = max > min ? (TABLE_SIZE - 1) / (max - min) : 0;
+            this.changes = changes;
+        }
+
+        /** Find the entry closest to a value of the scheduling variable.
+         * @param value The value of the scheduling variable
+         * @return The index of the closest entry
+         */
+        int indexOf(double value) {
+            final int index = (int) Math.round((value - min) * scale); // NaN rounds to 0
+            return Math.max(0, Math.min(TABLE_SIZE - 1, index));
+        }
+    }
+
+    private final DoubleSupplier variable;
+    private double[] keys = new double[0]; // Sorted, and replaced (never modified) when a point is added
+    private DynamicPIDGains[] points = new DynamicPIDGains[0]; // The gains at each key
+    private volatile Table table; // null until the first lookup after a point is added
+
+    /** Create a new GainSchedule, with no points.
+     * @param variable A function that returns the scheduling variable, which must be thread-safe if the PID runs on its
+     * own thread
+     */
+    public GainSchedule(DoubleSupplier variable) {
+        this.variable = variable;
+    }
+
+    /** Add a point to the schedule. Points should be added before the schedule is used.
+     * @param key The value of the scheduling variable at which the gains are used
+     * @param gains The gains to use at the point, which can be shared with PIDs that aren't scheduled
+     * @return The GainSchedule, for chaining
+     */
+    public synchronized GainSchedule addPoint(
+        double key,
+        DynamicPIDGains gains
+    ) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index >= 0) throw new IllegalArgumentException(
+            "GainSchedule already has a point at " + key
+        );
+        index = -index - 1;
+        final double[] keys = new double[this.keys.length + 1];
+        final DynamicPIDGains[] points = new DynamicPIDGains[keys.length];
+        System.arraycopy(this.keys, 0, keys, 0, index);
+        System.arraycopy(this.points, 0, points, 0, index);
+        keys[index] = key;
+        points[index] = gains;
+        System.arraycopy(
+            this.keys,
+            index,
+            keys,
+            index + 1,
+            this.keys.length - index
+        );
+        System.arraycopy(
+            this.points,
+            index,
+            points,
+            index + 1,
+            this.points.length - index
+        );
+        this.keys = keys;
+        this.points = points;
+        table = null;
+        return this;
+    }
+
+    /** Calculate the output of a PID, using the gains scheduled for the current value of the scheduling variable.
+     * @param core The PIDCore to calculate with
+     * @param error The current error
+     * @return The calculated output
+     */
+    public double calculate(PIDCore core, double error) {
+        Table table = this.table;
+        if (
+            table == null || table.changes != DynamicPIDGains.changeCount()
+        ) table = rebuild();
+        final int index = table.indexOf(variable.getAsDouble());
+        return core.calculate(
+            error,
+            table.p[index],
+            table.i[index],
+            table.d[index],
+            table.iMax[index]
+        );
+    }
+
+    /** Build a new table from the current gains, and swap it in.
+     * @return The new table
+     */
+    private synchronized Table rebuild() {
+        if (points.length == 0) throw new IllegalStateException(
+            "GainSchedule has no points."
+        );
+        final Table table = new Table( // The count is read first, so a change while building causes another rebuild
+            keys[0],
+            keys[keys.length - 1],
+            DynamicPIDGains.changeCount()
+        );
+        final PIDGains[] gains = new PIDGains[points.length];
+        for (int point = 0; point < points.length; point++) gains[point] =
+            points[point].get();
+        int upper = 0; // Index of the first point at or above the entry
+        for (int entry = 0; entry < TABLE_SIZE; entry++) {
+            final double key = table.scale == 0
+                ? keys[0]
+                : table.min + entry / table.scale;
+            while (upper < keys.length - 1 && keys[upper] < key) upper++;
+            final int lower = Math.max(0, upper - 1);
+            final double t = keys[upper] > keys[lower]
+                ? Math.max(
+                    0,
+                    Math.min(
+                        1,
+                        (key - keys[lower]) / (keys[upper] - keys[lower])
+                    )
+                )
+                : 1;
+            table.p[entry] = interpolate(gains[lower].p, gains[upper].p, t);
+            table.i[entry] = interpolate(gains[lower].i, gains[upper].i, t);
+            table.d[entry] = interpolate(gains[lower].d, gains[upper].d, t);
+            table.iMax[entry] =
+                interpolate(gains[lower].iMax, gains[upper].iMax, t);
+        }
+        this.table = table;
+        return table;
+    }
+
+    /** Linearly interpolate between two values.
+     * @param from The value at t = 0
+     * @param to The value at t = 1
+     * @param t How far to interpolate (0-1)
+     * @return The interpolated value
+     */
+    private static double interpolate(double from, double to, double t) {
+        return from + (to - from) * t;
+    }
+}
@@ -1,12 +1,26 @@
 package frc.robot.util;
 
+import com.ctre.phoenix.motorcontrol.InvertType;
+import com.ctre.phoenix.motorcontrol.StatusFrameEnhanced;
+import com.ctre.phoenix.motorcontrol.SupplyCurrentLimitConfiguration;
+import com.ctre.phoenix.motorcontrol.can.TalonSRXConfiguration;
 import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
 import com.ctre.phoenix6.controls.DutyCycleOut;
+import com.ctre.phoenix6.controls.Follower;
+import com.ctre.phoenix6.controls.PositionVoltage;
+import com.ctre.phoenix6.controls.VelocityVoltage;
 import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.InvertedValue;
 import com.revrobotics.CANSparkLowLevel;
 import com.revrobotics.CANSparkMax;
+import com.revrobotics.SparkPIDController;
+import edu.wpi.first.wpilibj.Timer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A motor controller class that provides a basic generic implementation for common motor controllers used in FRC.
@@ -18,6 +32,7 @@ public class GenericController {
         TALONFX,
         TALONSRX,
         SPARKMAX,
+        SIM, // An in-memory model with no hardware, see SimulatedMotor
     }
 
     public enum NeutralMode {
@@ -25,53 +40,663 @@ public class GenericController {
         Coast,
     }
 
+    public enum ControlMode {
+        PERCENT, // Percent output, between -1 and 1
+        POSITION, // Closed-loop position, in the same units as getPosition()
+        VELOCITY, // Closed-loop velocity, in the same units as getVelocity()
+    }
+
+    public enum Signal {
+        POSITION,
+        VELOCITY,
+        TEMPERATURE,
+        SUPPLY_CURRENT,
+        STATOR_CURRENT,
+    }
+
+    /**
+     * How often a controller broadcasts the signals it's told are consumed. Signals that aren't consumed are sent as
+     * rarely as the controller allows (or not at all, on the TalonFX).
+     */
+    public enum TelemetryProfile {
+        HIGH(100),
+        NORMAL(50),
+        MINIMAL(4);
+
+        public final double frequency; // Hz
+
+        TelemetryProfile(double frequency) {
+            this.frequency = frequency;
+        }
+    }
+
+    private static final ArrayList<GenericController> controllers = new ArrayList<>();
+    private static boolean simulated = false; // Whether new controllers use the SIM backend, regardless of their type
+    // Status signals of every TalonFX that get refreshed together, once per loop, by refreshSignals()
+    private static final ArrayList<BaseStatusSignal> batchedSignals = new ArrayList<>();
+    private static volatile BaseStatusSignal[] batchedSignalArray = new BaseStatusSignal[0];
+    // Held while refreshing or reading TalonFX signals, as status signals aren't thread-safe, but may be read by
+    // PID loops running on their own threads (see getRealtimePosition())
+    private static final Object signalLock = new Object();
+    private static final LongAdder totalSkippedWrites = new LongAdder();
+
+    static final double DEFAULT_OUTPUT_EPSILON = 0.001; // Outputs within this of the last written output are skipped
+    static final double DEFAULT_KEEP_ALIVE_INTERVAL = 0.05; // Seconds before an unchanged output is resent (for motor safety)
+    static final int TALONSRX_CONFIG_TIMEOUT_MS = 50; // Timeout when applying a TalonSRX configuration transaction
+    static final int SPARKMAX_CAN_TIMEOUT_MS = 20; // CAN timeout for SparkMax parameter changes outside a transaction
+    static final double NOMINAL_VOLTAGE = 12; // Voltage that percent output gains are scaled by for TalonFX voltage control
+    static final int TALONSRX_UNUSED_FRAME_PERIOD_MS = 255; // Status frame period for unconsumed TalonSRX signals (max)
+    static final int SPARKMAX_UNUSED_FRAME_PERIOD_MS = 500; // Status frame period for unconsumed SparkMax signals
+
     public final BaseController base;
     public TalonFX talonFX;
     public DutyCycleOut talonFXOut;
+    public PositionVoltage talonFXPositionOut;
+    public VelocityVoltage talonFXVelocityOut;
     public TalonFXConfiguration talonFXConfig;
+    public StatusSignal<Double> talonFXPosition, talonFXVelocity, talonFXTemperature, talonFXSupplyCurrent, talonFXStatorCurrent;
     public WPI_TalonSRX talonSRX;
+    public TalonSRXConfiguration talonSRXConfig;
     public CANSparkMax sparkMax;
+    public SparkPIDController sparkMaxPID;
+    public SimulatedMotor simMotor;
+    private volatile EnumSet<Signal> batched = EnumSet.noneOf(Signal.class); // Replaced (never modified) when changed
+    private double outputEpsilon = DEFAULT_OUTPUT_EPSILON, keepAliveInterval =
+        DEFAULT_KEEP_ALIVE_INTERVAL;
+    private ControlMode lastMode = ControlMode.PERCENT; // Guarded by outputLock
+    private double lastOutput = Double.NaN, lastWriteTime = 0; // Guarded by outputLock
+    private final Object outputLock = new Object(); // Held while deciding whether to skip an output, and writing it
+    private final LongAdder skippedWrites = new LongAdder(); // Written from Notifier threads as well as the main thread
+    private boolean configuring = false;
+    private boolean talonSRXPIDStaged = false, talonSRXCurrentLimitStaged =
+        false; // TalonSRX settings changed during the open transaction, which are the only ones sent on commit
+    private TelemetryProfile telemetryProfile = null; // null until set, leaving the factory default rates
+    private final EnumSet<Signal> consumedSignals = EnumSet.noneOf(Signal.class);
+    private GenericController leader = null;
+    private boolean hardwareLeader = false; // Whether another controller follows this one in firmware
+    private final ArrayList<GenericController> softwareFollowers = new ArrayList<>();
+    private final int outputEntry; // DataLogger entry of the written outputs
 
     /**
      * Create a new GenericController.
-     * @param base The type of motor controller to use.
+     * @param base The type of motor controller to use. This is ignored (and SIM is used) if simulation is enabled.
      * @param id The ID of the motor controller.
      */
     public GenericController(BaseController base, int id) {
-        this.base = base;
-        switch (base) {
+        this.base = simulated ? BaseController.SIM : base;
+        this.outputEntry =
+            DataLogger.entry("Motors/" + id + "/Output", DataLogger.Type.DOUBLE);
+        switch (this.base) {
             case TALONFX:
                 talonFX = new TalonFX(id);
                 talonFXOut = new DutyCycleOut(0);
+                talonFXPositionOut = new PositionVoltage(0);
+                talonFXVelocityOut = new VelocityVoltage(0);
                 talonFXConfig = new TalonFXConfiguration();
+                talonFXPosition = talonFX.getPosition();
+                talonFXVelocity = talonFX.getVelocity();
+                talonFXTemperature = talonFX.getDeviceTemp();
+                talonFXSupplyCurrent = talonFX.getSupplyCurrent();
+                talonFXStatorCurrent = talonFX.getStatorCurrent();
+                setBatchedSignals(Signal.values());
                 break;
             case TALONSRX:
                 talonSRX = new WPI_TalonSRX(id);
+                talonSRXConfig = new TalonSRXConfiguration();
                 break;
             case SPARKMAX:
                 // Currently only supports brushless motors, as some implementations rely on brushless features
                 sparkMax =
                     new CANSparkMax(id, CANSparkLowLevel.MotorType.kBrushless);
+                sparkMaxPID = sparkMax.getPIDController();
+                break;
+            case SIM:
+                simMotor = new SimulatedMotor(id);
                 break;
         }
+        synchronized (controllers) {
+            controllers.add(this);
+        }
+    }
+
+    /** Set whether every controller created from now on uses the SIM backend, regardless of the type it's created with.
+     * This allows every subsystem to run off-robot without any other changes.
+     * @param simulated Whether to use the SIM backend
+     */
+    public static void setSimulated(boolean simulated) {
+        GenericController.simulated = simulated;
+    }
+
+    /** Advance the model of every controller using the SIM backend.
+     * @param dt The time to advance by, in seconds
+     */
+    public static void stepSimulation(double dt) {
+        synchronized (controllers) {
+            for (GenericController controller : controllers) {
+                if (controller.base == BaseController.SIM) controller.simMotor.step(
+                    dt
+                );
+            }
+        }
+    }
+
+    /** Start a configuration transaction. Until {@link #commitConfig()} is called, configuration changes (neutral mode,
+     * inversion, current limits) are only collected, and are then sent together in a single apply per device.
+     * <p>
+     * This is a single TalonFX configurator apply, or, on the TalonSRX & SparkMax, parameter changes that are sent without
+     * waiting for each one to be acknowledged. Only the TalonSRX settings changed during the transaction are sent, so a
+     * transaction that changes nothing doesn't touch the device.
+     */
+    public void beginConfig() {
+        if (configuring) return;
+        configuring = true;
+        if (base == BaseController.SPARKMAX) sparkMax.setCANTimeout(0);
+    }
+
+    /**
+     * Commit the configuration transaction started with {@link #beginConfig()}, sending all collected changes at once.
+     */
+    public void commitConfig() {
+        if (!configuring) return;
+        configuring = false;
+        switch (base) {
+            case TALONFX -> talonFX.getConfigurator().apply(talonFXConfig);
+            case TALONSRX -> {
+                if (talonSRXPIDStaged) applyTalonSRXPID();
+                if (talonSRXCurrentLimitStaged) applyTalonSRXCurrentLimit(0);
+                talonSRXPIDStaged = false;
+                talonSRXCurrentLimitStaged = false;
+            }
+            case SPARKMAX -> sparkMax.setCANTimeout(SPARKMAX_CAN_TIMEOUT_MS);
+        }
+        if (telemetryProfile != null) applyTelemetryProfile();
+        if (leader != null) applyFollow();
+    }
+
+    /**
+     * Commit the configuration transaction of every controller that has one open.
+     */
+    public static void commitAllConfigs() {
+        final GenericController[] all;
+        synchronized (controllers) {
+            all = controllers.toArray(new GenericController[0]);
+        }
+        for (GenericController controller : all) controller.commitConfig();
+    }
+
+    /** Commit the configuration transaction of every controller that has one open, concurrently on the orchestrator's
+     * worker threads. Each controller is timed individually. The orchestrator must be joined to wait for completion.
+     * @param orchestrator The StartupOrchestrator to run the commits on
+     */
+    public static void commitAllConfigs(StartupOrchestrator orchestrator) {
+        synchronized (controllers) {
+            for (GenericController controller : controllers) {
+                if (controller.configuring) orchestrator.submit(
+                    String.format(
+                        "%s (%d)",
+                        controller.base,
+                        controller.getID()
+                    ),
+                    controller::commitConfig
+                );
+            }
+        }
+    }
+
+    /**
+     * Send the TalonSRX PID gains from its configuration, without waiting for them to be acknowledged.
+     */
+    private void applyTalonSRXPID() {
+        talonSRX.config_kP(0, talonSRXConfig.slot0.kP, 0);
+        talonSRX.config_kI(0, talonSRXConfig.slot0.kI, 0);
+        talonSRX.config_kD(0, talonSRXConfig.slot0.kD, 0);
+        talonSRX.configMaxIntegralAccumulator(
+            0,
+            talonSRXConfig.slot0.maxIntegralAccumulator,
+            0
+        );
+    }
+
+    /** Send the TalonSRX supply current limit from its configuration.
+     * @param timeout The time to wait for it to be acknowledged, in milliseconds (0 to not wait)
+     */
+    private void applyTalonSRXCurrentLimit(int timeout) {
+        talonSRX.configSupplyCurrentLimit(
+            talonSRXConfig.supplyCurrLimit,
+            timeout
+        );
+    }
+
+    /**
+     * Apply the TalonFX configuration, unless a configuration transaction is open.
+     */
+    private void applyTalonFXConfig() {
+        if (!configuring) talonFX.getConfigurator().apply(talonFXConfig);
+    }
+
+    /** Set how often the controller broadcasts status frames, and which signals are actually read from it. Consumed
+     * signals are sent at the profile's frequency, while every other signal is sent as rarely as possible (disabled
+     * entirely on the TalonFX, where reading an unconsumed signal will return a stale value).
+     * <p>
+     * On the TalonFX, only consumed signals are refreshed in the per-loop batch. If a configuration transaction is
+     * open, the frame rates are sent when it is committed.
+     * @param profile The telemetry profile to use for the consumed signals
+     * @param consumed The signals that are read from this controller
+     */
+    public void setTelemetryProfile(
+        TelemetryProfile profile,
+        Signal... consumed
+    ) {
+        telemetryProfile = profile;
+        consumedSignals.clear();
+        for (Signal signal : consumed) consumedSignals.add(signal);
+        setBatchedSignals(consumed);
+        if (!configuring) applyTelemetryProfile();
+    }
+
+    /**
+     * Send the status frame rates for the current telemetry profile and consumed signals to the controller.
+     */
+    private void applyTelemetryProfile() {
+        final int periodMs = (int) Math.round(
+            1000 / telemetryProfile.frequency
+        );
+        switch (base) {
+            case TALONFX:
+                if (!consumedSignals.isEmpty()) {
+                    BaseStatusSignal[] signals = new BaseStatusSignal[consumedSignals.size()];
+                    int i = 0;
+                    for (Signal signal : consumedSignals) signals[i++] =
+                        getStatusSignal(signal);
+                    BaseStatusSignal.setUpdateFrequencyForAll(
+                        telemetryProfile.frequency,
+                        signals
+                    );
+                }
+                // Followers rely on these leader signals, which would otherwise be disabled by optimizing the bus
+                if (hardwareLeader) BaseStatusSignal.setUpdateFrequencyForAll(
+                    Math.max(
+                        telemetryProfile.frequency,
+                        TelemetryProfile.NORMAL.frequency
+                    ),
+                    talonFX.getDutyCycle(),
+                    talonFX.getMotorVoltage(),
+                    talonFX.getTorqueCurrent()
+                );
+                talonFX.optimizeBusUtilization(); // Disables every signal without an explicitly set frequency
+                break;
+            case TALONSRX:
+                // Position, velocity & current are all sent in the feedback frame
+                final boolean feedback =
+                    consumedSignals.contains(Signal.POSITION) ||
+                    consumedSignals.contains(Signal.VELOCITY) ||
+                    consumedSignals.contains(Signal.SUPPLY_CURRENT) ||
+                    consumedSignals.contains(Signal.STATOR_CURRENT);
+                talonSRX.setStatusFramePeriod(
+                    StatusFrameEnhanced.Status_2_Feedback0,
+                    feedback ? periodMs : TALONSRX_UNUSED_FRAME_PERIOD_MS,
+                    TALONSRX_CONFIG_TIMEOUT_MS
+                );
+                talonSRX.setStatusFramePeriod(
+                    StatusFrameEnhanced.Status_4_AinTempVbat,
+                    consumedSignals.contains(Signal.TEMPERATURE)
+                        ? periodMs
+                        : TALONSRX_UNUSED_FRAME_PERIOD_MS,
+                    TALONSRX_CONFIG_TIMEOUT_MS
+                );
+                // Frames we never read from (the general frame is left alone, as followers rely on it)
+                for (StatusFrameEnhanced frame : new StatusFrameEnhanced[] {
+                    StatusFrameEnhanced.Status_3_Quadrature,
+                    StatusFrameEnhanced.Status_8_PulseWidth,
+                    StatusFrameEnhanced.Status_10_Targets,
+                    StatusFrameEnhanced.Status_12_Feedback1,
+                    StatusFrameEnhanced.Status_13_Base_PIDF0,
+                    StatusFrameEnhanced.Status_14_Turn_PIDF1,
+                }) talonSRX.setStatusFramePeriod(
+                    frame,
+                    TALONSRX_UNUSED_FRAME_PERIOD_MS,
+                    TALONSRX_CONFIG_TIMEOUT_MS
+                );
+                break;
+            case SPARKMAX:
+                // Velocity, temperature & output current are all sent in status 1, and position in status 2
+                final boolean status1 =
+                    consumedSignals.contains(Signal.VELOCITY) ||
+                    consumedSignals.contains(Signal.TEMPERATURE) ||
+                    consumedSignals.contains(Signal.STATOR_CURRENT);
+                sparkMax.setPeriodicFramePeriod(
+                    CANSparkLowLevel.PeriodicFrame.kStatus1,
+                    status1 ? periodMs : SPARKMAX_UNUSED_FRAME_PERIOD_MS
+                );
+                sparkMax.setPeriodicFramePeriod(
+                    CANSparkLowLevel.PeriodicFrame.kStatus2,
+                    consumedSignals.contains(Signal.POSITION)
+                        ? periodMs
+                        : SPARKMAX_UNUSED_FRAME_PERIOD_MS
+                );
+                // Frames we never read from (status 0 is left alone, as followers rely on it)
+                for (CANSparkLowLevel.PeriodicFrame frame : new CANSparkLowLevel.PeriodicFrame[] {
+                    CANSparkLowLevel.PeriodicFrame.kStatus3,
+                    CANSparkLowLevel.PeriodicFrame.kStatus4,
+                    CANSparkLowLevel.PeriodicFrame.kStatus5,
+                    CANSparkLowLevel.PeriodicFrame.kStatus6,
+                }) sparkMax.setPeriodicFramePeriod(
+                    frame,
+                    SPARKMAX_UNUSED_FRAME_PERIOD_MS
+                );
+                break;
+        }
+    }
+
+    /** Refresh the batched status signals of every TalonFX in a single call. This should be run once per loop, before
+     * any subsystems or commands read from their motors, as batched getters only return the value cached here.
+     */
+    public static void refreshSignals() {
+        final BaseStatusSignal[] signals = batchedSignalArray;
+        if (signals.length == 0) return;
+        synchronized (signalLock) {
+            BaseStatusSignal.refreshAll(signals);
+        }
+    }
+
+    /** Set which signals are refreshed in the per-loop batch (see {@link #refreshSignals()}). By default, every signal is
+     * batched. Signals that aren't batched are refreshed individually every time they're read instead.
+     * This only has an effect on the TalonFX, as the TalonSRX & SparkMax getters already return cached values.
+     * @param signals The signals to refresh in the per-loop batch
+     */
+    public void setBatchedSignals(Signal... signals) {
+        if (base != BaseController.TALONFX) return;
+        synchronized (batchedSignals) {
+            for (Signal signal : batched) batchedSignals.remove(
+                getStatusSignal(signal)
+            );
+            final EnumSet<Signal> batched = EnumSet.noneOf(Signal.class);
+            for (Signal signal : signals) {
+                if (batched.add(signal)) batchedSignals.add(
+                    getStatusSignal(signal)
+                );
+            }
+            this.batched = batched; // Published whole, as readSignal() reads it under a different lock
+            batchedSignalArray =
+                batchedSignals.toArray(new BaseStatusSignal[0]);
+        }
+    }
+
+    /** Get the TalonFX status signal object associated with a signal.
+     * @param signal The signal to get
+     * @return The TalonFX status signal
+     */
+    private StatusSignal<Double> getStatusSignal(Signal signal) {
+        return switch (signal) {
+            case POSITION -> talonFXPosition;
+            case VELOCITY -> talonFXVelocity;
+            case TEMPERATURE -> talonFXTemperature;
+            case SUPPLY_CURRENT -> talonFXSupplyCurrent;
+            case STATOR_CURRENT -> talonFXStatorCurrent;
+        };
+    }
+
+    /** Read the value of a TalonFX signal, only refreshing it if it isn't part of the per-loop batch.
+     * @param signal The signal to read
+     * @return The value of the signal
+     */
+    private double readSignal(Signal signal) {
+        final StatusSignal<Double> statusSignal = getStatusSignal(signal);
+        synchronized (signalLock) {
+            if (!batched.contains(signal)) statusSignal.refresh();
+            return statusSignal.getValue();
+        }
+    }
+
+    /** Configure how repeated outputs are coalesced by {@link #set(double)}. An output within the epsilon of the last
+     * written output is skipped, unless the keep-alive interval has passed since the last write. Simulated controllers
+     * never skip writes.
+     * @param epsilon The maximum difference from the last written output to skip a write (0 to only skip equal outputs)
+     * @param keepAliveInterval The time (seconds) after which the output is resent regardless (0 to disable coalescing)
+     */
+    public void setOutputCoalescing(double epsilon, double keepAliveInterval) {
+        this.outputEpsilon = epsilon;
+        this.keepAliveInterval = keepAliveInterval;
+    }
+
+    /** Get the number of writes skipped by this controller, as a result of output coalescing.
+     * @return The number of skipped writes
+     */
+    public long getSkippedWrites() {
+        return skippedWrites.sum();
+    }
+
+    /** Get the number of writes skipped by all controllers, as a result of output coalescing.
+     * @return The total number of skipped writes
+     */
+    public static long getTotalSkippedWrites() {
+        return totalSkippedWrites.sum();
     }
 
     /** Set the motor to a specific speed.
+     * <p>
+     * The write is skipped if the speed is within the output epsilon of the last written speed, and the keep-alive interval
+     * hasn't passed yet. A change to exactly 0 is always written. See {@link #setOutputCoalescing(double, double)}.
      * @param speed The speed to set the motor to, between -1 and 1.
      */
     public void set(double speed) {
+        set(ControlMode.PERCENT, speed);
+    }
+
+    /** Set the motor's output using a specific control mode. The position & velocity modes run closed-loop on the motor
+     * controller itself, using the gains given to {@link #setPID(double, double, double, double)}.
+     * <p>
+     * Writes are coalesced in the same way as {@link #set(double)}, as long as the control mode doesn't change.
+     * Setting a follower takes it out of follower mode.
+     * @param mode The control mode to use
+     * @param value The output (-1 to 1), position, or velocity to set, depending on the control mode
+     */
+    public void set(ControlMode mode, double value) {
+        if (leader != null) stopFollowing();
+        write(mode, value);
+    }
+
+    /** Write an output to the motor controller, and any controllers following it in software.
+     * @param mode The control mode to use
+     * @param value The output (-1 to 1), position, or velocity to set, depending on the control mode
+     */
+    private void write(ControlMode mode, double value) {
+        for (GenericController follower : softwareFollowers) follower.write(
+            mode,
+            value
+        );
+        synchronized (outputLock) { // Outputs can come from Notifier threads, so the skip check & write must be atomic
+            if (base != BaseController.SIM) { // There's no bus to protect in simulation, so every write goes through
+                final double now = Timer.getFPGATimestamp();
+                if (
+                    mode == lastMode &&
+                    Math.abs(value - lastOutput) <= outputEpsilon &&
+                    (mode != ControlMode.PERCENT ||
+                        value != 0 ||
+                        lastOutput == 0) &&
+                    now - lastWriteTime < keepAliveInterval
+                ) {
+                    skippedWrites.increment();
+                    totalSkippedWrites.increment();
+                    return;
+                }
+                lastWriteTime = now;
+            }
+            lastMode = mode;
+            lastOutput = value;
+            DataLogger.logDouble(outputEntry, value);
+            switch (base) {
+                case TALONFX:
+                    switch (mode) {
+                        case PERCENT -> talonFX.setControl(
+                            talonFXOut.withOutput(value)
+                        );
+                        case POSITION -> talonFX.setControl(
+                            talonFXPositionOut.withPosition(value)
+                        );
+                        case VELOCITY -> talonFX.setControl(
+                            talonFXVelocityOut.withVelocity(value)
+                        );
+                    }
+                    break;
+                case TALONSRX:
+                    talonSRX.set(
+                        switch (mode) {
+                            case PERCENT -> com.ctre.phoenix.motorcontrol.ControlMode.PercentOutput;
+                            case POSITION -> com.ctre.phoenix.motorcontrol.ControlMode.Position;
+                            case VELOCITY -> com.ctre.phoenix.motorcontrol.ControlMode.Velocity;
+                        },
+                        value
+                    );
+                    break;
+                case SPARKMAX:
+                    switch (mode) {
+                        case PERCENT -> sparkMax.set(value);
+                        case POSITION -> sparkMaxPID.setReference(
+                            value,
+                            CANSparkMax.ControlType.kPosition
+                        );
+                        case VELOCITY -> sparkMaxPID.setReference(
+                            value,
+                            CANSparkMax.ControlType.kVelocity
+                        );
+                    }
+                    break;
+                case SIM:
+                    simMotor.set(mode, value);
+                    break;
+            }
+        }
+    }
+
+    /** Make this controller follow another controller's output, so only the leader needs to be set. If both controllers
+     * are the same type, this is done in firmware (halving the control frames sent), otherwise the leader forwards
+     * every output it's given to this controller.
+     * <p>
+     * The follower spins in the direction given by its own inversion, as if it were set to the same output as the
+     * leader. If a configuration transaction is open, following starts when it is committed (after any inversion
+     * changes have been made).
+     * @param leader The controller to follow
+     */
+    public void follow(GenericController leader) {
+        if (this.leader != null) stopFollowing();
+        this.leader = leader;
+        if (followsInHardware()) {
+            leader.hardwareLeader = true;
+        } else {
+            leader.softwareFollowers.add(this);
+        }
+        if (!configuring) applyFollow();
+    }
+
+    /**
+     * Stop following the leader. The motor is left stopped until it's set again.
+     */
+    public void stopFollowing() {
+        if (leader == null) return;
+        if (followsInHardware()) {
+            switch (base) {
+                case TALONFX -> talonFX.setControl(talonFXOut.withOutput(0));
+                case TALONSRX -> talonSRX.set(
+                    com.ctre.phoenix.motorcontrol.ControlMode.PercentOutput,
+                    0
+                );
+                case SPARKMAX -> {
+                    sparkMax.follow(
+                        CANSparkMax.ExternalFollower.kFollowerDisabled,
+                        0
+                    );
+                    sparkMax.set(0);
+                }
+            }
+        } else leader.softwareFollowers.remove(this);
+        leader = null;
+        synchronized (outputLock) {
+            lastOutput = Double.NaN; // Ensure the next output is written
+        }
+    }
+
+    /** Check whether this controller is following another controller.
+     * @return Whether this controller is a follower
+     */
+    public boolean isFollower() {
+        return leader != null;
+    }
+
+    /** Check whether this controller follows its leader in firmware, rather than having outputs forwarded to it.
+     * @return Whether this controller follows in firmware
+     */
+    private boolean followsInHardware() {
+        return leader.base == base && base != BaseController.SIM;
+    }
+
+    /**
+     * Send the follow request to the motor controller, for followers of the same type as their leader.
+     */
+    private void applyFollow() {
+        if (!followsInHardware()) return;
+        final boolean oppose = getInverted() != leader.getInverted();
+        switch (base) {
+            case TALONFX -> talonFX.setControl(
+                new Follower(leader.getID(), oppose)
+            );
+            case TALONSRX -> {
+                talonSRX.follow(leader.talonSRX);
+                talonSRX.setInverted(
+                    oppose ? InvertType.OpposeMaster : InvertType.FollowMaster
+                );
+            }
+            case SPARKMAX -> sparkMax.follow(leader.sparkMax, oppose);
+        }
+    }
+
+    /** Configure the gains used by the closed-loop position & velocity control modes. The gains are in the same units
+     * as {@link frc.robot.commands.GenericPID}: percent output per unit of error, per unit of error * second, and per
+     * unit of error / second. They are converted to each controller's native units internally.
+     * <p>
+     * The integral max is NOT SUPPORTED ON THE TALONFX. If a configuration transaction is open, the gains are sent when
+     * it is committed, otherwise they are sent without waiting, so this is safe to call while running.
+     * @param p The proportional gain
+     * @param i The integral gain
+     * @param d The derivative gain
+     * @param iMax The maximum value of the integral term's accumulated error (error * seconds)
+     */
+    public void setPID(double p, double i, double d, double iMax) {
         switch (base) {
             case TALONFX:
-                talonFX.setControl(talonFXOut.withOutput(speed));
+                // Voltage control is used for battery compensation, so the percent gains are scaled to volts
+                talonFXConfig.Slot0.kP = p * NOMINAL_VOLTAGE;
+                talonFXConfig.Slot0.kI = i * NOMINAL_VOLTAGE;
+                talonFXConfig.Slot0.kD = d * NOMINAL_VOLTAGE;
+                if (!configuring) talonFX
+                    .getConfigurator()
+                    .apply(talonFXConfig.Slot0, 0);
                 break;
             case TALONSRX:
-                talonSRX.set(
-                    com.ctre.phoenix.motorcontrol.ControlMode.PercentOutput,
-                    speed
-                );
+                // Full output is 1023, and the loop runs every 1ms without normalizing for time
+                talonSRXConfig.slot0.kP = p * 1023;
+                talonSRXConfig.slot0.kI = i * 1023 / 1000;
+                talonSRXConfig.slot0.kD = d * 1023 * 1000;
+                talonSRXConfig.slot0.maxIntegralAccumulator = iMax * 1000;
+                if (configuring) {
+                    talonSRXPIDStaged = true;
+                } else {
+                    applyTalonSRXPID();
+                }
                 break;
             case SPARKMAX:
-                sparkMax.set(speed);
+                // The loop runs every 1ms without normalizing for time
+                if (!configuring) sparkMax.setCANTimeout(0); // Don't wait for each parameter to be acknowledged
+                sparkMaxPID.setP(p);
+                sparkMaxPID.setI(i / 1000);
+                sparkMaxPID.setD(d * 1000);
+                sparkMaxPID.setIMaxAccum(iMax * 1000, 0);
+                if (!configuring) sparkMax.setCANTimeout(
+                    SPARKMAX_CAN_TIMEOUT_MS
+                );
+                break;
+            case SIM:
+                simMotor.setPID(p, i, d, iMax);
                 break;
         }
     }
@@ -86,7 +711,7 @@ public class GenericController {
                     mode == NeutralMode.Brake
                         ? com.ctre.phoenix6.signals.NeutralModeValue.Brake
                         : com.ctre.phoenix6.signals.NeutralModeValue.Coast;
-                talonFX.getConfigurator().apply(talonFXConfig);
+                applyTalonFXConfig();
                 break;
             case TALONSRX:
                 talonSRX.setNeutralMode(
@@ -102,6 +727,9 @@ public class GenericController {
                         : CANSparkMax.IdleMode.kCoast
                 );
                 break;
+            case SIM:
+                simMotor.brake = mode == NeutralMode.Brake;
+                break;
         }
     }
 
@@ -122,7 +750,7 @@ public class GenericController {
                     inverted
                         ? InvertedValue.Clockwise_Positive
                         : InvertedValue.CounterClockwise_Positive;
-                talonFX.getConfigurator().apply(talonFXConfig);
+                applyTalonFXConfig();
                 break;
             case TALONSRX:
                 talonSRX.setInverted(inverted);
@@ -130,6 +758,9 @@ public class GenericController {
             case SPARKMAX:
                 sparkMax.setInverted(inverted);
                 break;
+            case SIM:
+                simMotor.inverted = inverted;
+                break;
         }
     }
 
@@ -142,6 +773,7 @@ public class GenericController {
             InvertedValue.Clockwise_Positive;
             case TALONSRX -> talonSRX.getInverted();
             case SPARKMAX -> sparkMax.getInverted();
+            case SIM -> simMotor.inverted;
         };
     }
 
@@ -165,18 +797,21 @@ public class GenericController {
                 talonFXConfig.CurrentLimits
                     .withStatorCurrentLimitEnable(enabled)
                     .withStatorCurrentLimit(limit);
-                talonFX.getConfigurator().apply(talonFXConfig);
+                applyTalonFXConfig();
                 break;
             case TALONSRX:
-                talonSRX.configSupplyCurrentLimit(
-                    new com.ctre.phoenix.motorcontrol.SupplyCurrentLimitConfiguration(
+                talonSRXConfig.supplyCurrLimit =
+                    new SupplyCurrentLimitConfiguration(
                         enabled,
                         limit,
                         trigger,
                         triggerTime
-                    ),
-                    5
-                );
+                    );
+                if (configuring) {
+                    talonSRXCurrentLimitStaged = true;
+                } else {
+                    applyTalonSRXCurrentLimit(5);
+                }
                 break;
             case SPARKMAX:
                 System.out.println(
@@ -199,7 +834,7 @@ public class GenericController {
                 talonFXConfig.CurrentLimits
                     .withStatorCurrentLimitEnable(enabled)
                     .withStatorCurrentLimit(limit);
-                talonFX.getConfigurator().apply(talonFXConfig);
+                applyTalonFXConfig();
                 break;
             case TALONSRX:
                 // Appears to only implement supply current limiting
@@ -225,6 +860,7 @@ public class GenericController {
                 (int) newPosition
             );
             case SPARKMAX -> sparkMax.getEncoder().setPosition(newPosition);
+            case SIM -> simMotor.position = newPosition;
         }
     }
 
@@ -232,10 +868,12 @@ public class GenericController {
      * @return The speed of the motor, between -1 and 1.
      */
     public double get() {
+        if (leader != null) return leader.get();
         return switch (base) {
             case TALONFX -> talonFXOut.Output;
             case TALONSRX -> talonSRX.get();
             case SPARKMAX -> sparkMax.get();
+            case SIM -> simMotor.output;
         };
     }
 
@@ -244,31 +882,47 @@ public class GenericController {
      */
     public double getTemperature() {
         return switch (base) {
-            case TALONFX -> talonFX.getDeviceTemp().getValue();
+            case TALONFX -> readSignal(Signal.TEMPERATURE);
             case TALONSRX -> talonSRX.getTemperature();
             case SPARKMAX -> sparkMax.getMotorTemperature();
+            case SIM -> simMotor.temperature;
         };
     }
 
     /** Get the position of the motor.
-     * @return The position in raw sensor units for Talon's, and rotations for SparkMax's.
+     * @return The position in raw sensor units for Talon's, and rotations for SparkMax's & SIM.
      */
     public double getPosition() {
         return switch (base) {
-            case TALONFX -> talonFX.getPosition().getValue();
+            case TALONFX -> readSignal(Signal.POSITION);
             case TALONSRX -> talonSRX.getSelectedSensorPosition();
             case SPARKMAX -> sparkMax.getEncoder().getPosition();
+            case SIM -> simMotor.position;
         };
     }
 
+    /** Get the latest position of the motor, for PID loops running faster than (or on a different thread to) the main
+     * loop. Unlike {@link #getPosition()}, this always refreshes the TalonFX position signal instead of using the
+     * per-loop batch. This is safe to call from any thread.
+     * @return The position in raw sensor units for Talon's, and rotations for SparkMax's & SIM.
+     */
+    public double getRealtimePosition() {
+        if (base != BaseController.TALONFX) return getPosition();
+        synchronized (signalLock) {
+            talonFXPosition.refresh();
+            return talonFXPosition.getValue();
+        }
+    }
+
     /** Get the velocity of the motor.
-     * @return The velocity in raw sensor units per 100ms for Talon's, and RPM for SparkMax's.
+     * @return The velocity in raw sensor units per 100ms for Talon's, RPM for SparkMax's, and rotations per second for SIM.
      */
     public double getVelocity() {
         return switch (base) {
-            case TALONFX -> talonFX.getVelocity().getValue();
+            case TALONFX -> readSignal(Signal.VELOCITY);
             case TALONSRX -> talonSRX.getSelectedSensorVelocity();
             case SPARKMAX -> sparkMax.getEncoder().getVelocity();
+            case SIM -> simMotor.velocity;
         };
     }
 
@@ -277,9 +931,10 @@ public class GenericController {
      */
     public double getSupplyCurrent() {
         return switch (base) {
-            case TALONFX -> talonFX.getSupplyCurrent().getValue();
+            case TALONFX -> readSignal(Signal.SUPPLY_CURRENT);
             case TALONSRX -> talonSRX.getSupplyCurrent();
             case SPARKMAX -> -999999; // Not supported, no warning to avoid spamming (& -999999 is a clearly invalid)
+            case SIM -> simMotor.supplyCurrent;
         };
     }
 
@@ -288,9 +943,10 @@ public class GenericController {
      */
     public double getStatorCurrent() {
         return switch (base) {
-            case TALONFX -> talonFX.getStatorCurrent().getValue();
+            case TALONFX -> readSignal(Signal.STATOR_CURRENT);
             case TALONSRX -> talonSRX.getStatorCurrent();
             case SPARKMAX -> sparkMax.getOutputCurrent();
+            case SIM -> simMotor.statorCurrent;
         };
     }
 
@@ -302,6 +958,7 @@ public class GenericController {
             case TALONFX -> talonFX.getDeviceID();
             case TALONSRX -> talonSRX.getDeviceID();
             case SPARKMAX -> sparkMax.getDeviceId();
+            case SIM -> simMotor.id;
         };
     }
 
@@ -313,6 +970,7 @@ public class GenericController {
             case TALONFX -> talonFX;
             case TALONSRX -> talonSRX;
             case SPARKMAX -> sparkMax;
+            case SIM -> simMotor;
         };
     }
 }
@@ -0,0 +1,66 @@
+package frc.robot.util;
+
+/**
+ * A fixed-size histogram of values over a range, split into equal-width bins. Recording a value doesn't allocate, so
+ * it's safe to use in control loops. Values outside the range are counted in the first or last bin, and the exact
+ * maximum is tracked separately.
+ * <p>
+ * This isn't thread-safe on its own; users that record and read from different threads must synchronize.
+ */
+public class Histogram {
+
+    private final double min, binWidth;
+    private final long[] bins;
+    private long count = 0;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /** Create a new Histogram.
+     * @param min The lower bound of the first bin
+     * @param max The upper bound of the last bin
+     * @param bins The number of bins
+     */
+    public Histogram(double min, double max, int bins) {
+        this.min = min;
+        this.binWidth = (max - min) / bins;
+        this.bins = new long[bins];
+    }
+
+    /** Record a value.
+     * @param value The value to record
+     */
+    public void record(double value) {
+        final int bin = (int) ((value - min) / binWidth);
+        bins[Math.max(0, Math.min(bins.length - 1, bin))]++;
+        count++;
+        if (value > max) max = value;
+    }
+
+    /** Get the number of recorded values.
+     * @return The number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /** Get the largest recorded value.
+     * @return The largest recorded value, or NaN if nothing has been recorded
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /** Get an estimate of a percentile, as the upper bound of the bin it falls in.
+     * @param percentile The percentile to get (0-1)
+     * @return The estimated value, or NaN if nothing has been recorded
+     */
+    public double getPercentile(double percentile) {
+        if (count == 0) return Double.NaN;
+        final long target = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int i = 0; i < bins.length; i++) {
+            seen += bins[i];
+            if (seen >= target) return min + (i + 1) * binWidth;
+        }
+        return min + bins.length * binWidth;
+    }
+}
@@ -0,0 +1,293 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Times the sections of the robot loop (each subsystem's periodic(), each command's lifecycle methods, and the
+ * housekeeping in robotPeriodic()), so loop overruns can be attributed to the code that caused them.
+ * <p>
+ * Each section's time is recorded into a fixed-size {@link Histogram} without allocating. Once per
+ * {@link #PUBLISH_PERIOD}, the sections that took the most time are published to SmartDashboard (under "Profiler/"),
+ * and the slowest loop of the period is kept in a ring buffer along with its slowest sections, so the worst recent
+ * loops can be looked at after the fact.
+ * <p>
+ * Sections should only be timed on the main robot thread, between {@link #beginLoop()} and {@link #endLoop(double)}.
+ * Sections must not be nested, as the time of each loop is split between its sections.
+ * <p>
+ * Commands are timed through the CommandScheduler's hooks once {@link #profileCommands()} is called, so every scheduled
+ * command is included without changing it. As the hooks run after each lifecycle method, a command's time is the time
+ * since the previous section or hook, like the epochs of the CommandScheduler's own watchdog: it also includes the
+ * scheduler's work in between, such as polling the triggers, or the previous command's isFinished().
+ */
+public final class LoopProfiler {
+
+    static final double PUBLISH_PERIOD = 1; // Seconds between publishing the top offenders & the worst loop
+    static final double MAX_SECTION_TIME = 0.01; // Upper bound of each section's histogram, in seconds
+    static final double MAX_LOOP_TIME = 0.05; // Upper bound of the loop time histogram, in seconds
+    static final int BINS = 200; // Number of bins in each histogram
+    static final int TOP_OFFENDERS = 5; // Number of sections to publish, by time spent in them over the last period
+    static final int WORST_LOOPS = 10; // Number of worst loops to keep (one per period)
+    static final int WORST_LOOP_SECTIONS = 3; // Number of sections to keep for each worst loop
+
+    private static final int INITIALIZE = 0, EXECUTE = 1, END = 2; // Indices of each command's sections
+
+    /**
+     * A timed section of the loop, shared by everything timed under the same name.
+     */
+    public static final class Section {
+
+        private final String name;
+        private final Histogram histogram = new Histogram(
+            0,
+            MAX_SECTION_TIME,
+            BINS
+        );
+        private long startTime, loopTime, periodTime; // Nanoseconds
+
+        private Section(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Start timing the section.
+         */
+        public void start() {
+            startTime = System.nanoTime();
+        }
+
+        /**
+         * Stop timing the section, and record the time since {@link #start()}.
+         */
+        public void stop() {
+            final long now = System.nanoTime();
+            record(now - startTime);
+            lastMark = now;
+        }
+
+        /** Record a time for the section.
+         * @param time The time, in nanoseconds
+         */
+        private void record(long time) {
+            histogram.record(time / 1e9);
+            loopTime += time;
+            periodTime += time;
+        }
+    }
+
+    /**
+     * One of the worst loops, with its slowest sections. Preallocated, and overwritten when it's reused.
+     */
+    private static final class LoopRecord {
+
+        double timestamp, time; // Seconds
+        final String[] sections = new String[WORST_LOOP_SECTIONS];
+        final double[] sectionTimes = new double[WORST_LOOP_SECTIONS]; // Seconds
+        int sectionCount = 0;
+    }
+
+    private static final HashMap<String, Section> sectionsByName =
+        new HashMap<>();
+    private static final ArrayList<Section> sections = new ArrayList<>();
+    private static final HashMap<Command, Section[]> commandSections =
+        new HashMap<>();
+    private static final Section[] top = new Section[Math.max(
+        TOP_OFFENDERS,
+        WORST_LOOP_SECTIONS
+    )]; // Reused when finding the slowest sections
+    private static final Histogram loopTimes = new Histogram(
+        0,
+        MAX_LOOP_TIME,
+        BINS
+    );
+    private static final LoopRecord[] worstLoops = new LoopRecord[WORST_LOOPS];
+    private static int worstLoop = 0; // Index of the worst loop of the current period, which is overwritten next
+    private static long loopStartTime; // Nanoseconds
+    private static long lastMark; // Nanoseconds, when the last section or command hook finished
+    private static boolean inLoop = false;
+    private static double lastPublishTime = Double.NEGATIVE_INFINITY;
+
+    static {
+        for (int i = 0; i < WORST_LOOPS; i++) worstLoops[i] = new LoopRecord();
+    }
+
+    private LoopProfiler() {}
+
+    /** Get a section of the loop, creating it if it doesn't exist. This should be called once, and the section stored.
+     * @param name The name of the section, such as "DriveSubsystem.periodic()"
+     * @return The section
+     */
+    public static Section section(String name) {
+        return sectionsByName.computeIfAbsent(
+            name,
+            key -> {
+                final Section section = new Section(key);
+                sections.add(section);
+                return section;
+            }
+        );
+    }
+
+    /**
+     * Time every scheduled command's initialize(), execute() and end(), through the CommandScheduler's hooks. This should
+     * be called once, in robotInit(). Commands run outside of robotPeriodic(), such as those scheduled in
+     * autonomousInit(), aren't timed until the next loop.
+     */
+    public static void profileCommands() {
+        final CommandScheduler scheduler = CommandScheduler.getInstance();
+        scheduler.onCommandInitialize(command -> lap(command, INITIALIZE));
+        scheduler.onCommandExecute(command -> lap(command, EXECUTE));
+        scheduler.onCommandFinish(command -> lap(command, END));
+        scheduler.onCommandInterrupt(command -> lap(command, END));
+    }
+
+    /** Record the time since the last section or command hook, for a command's lifecycle method.
+     * @param command The command whose method just ran
+     * @param method The index of the method's section
+     */
+    private static void lap(Command command, int method) {
+        if (!inLoop) return;
+        Section[] methods = commandSections.get(command);
+        if (methods == null) { // Only allocates the first time each command runs
+            final String name = command.getName();
+            methods = new Section[] {
+                section(name + ".initialize()"),
+                section(name + ".execute()"),
+                section(name + ".end()"),
+            };
+            commandSections.put(command, methods);
+        }
+        final long now = System.nanoTime();
+        methods[method].record(now - lastMark);
+        lastMark = now;
+    }
+
+    /**
+     * Start timing a loop. This should be called at the start of robotPeriodic().
+     */
+    public static void beginLoop() {
+        loopStartTime = System.nanoTime();
+        lastMark = loopStartTime;
+        inLoop = true;
+    }
+
+    /** Finish timing a loop, and publish the statistics at most once per {@link #PUBLISH_PERIOD}. This should be called
+     * at the end of robotPeriodic().
+     * @param now The current time, in seconds
+     */
+    public static void endLoop(double now) {
+        inLoop = false;
+        final double time = (System.nanoTime() - loopStartTime) / 1e9;
+        loopTimes.record(time);
+        final LoopRecord record = worstLoops[worstLoop];
+        if (time > record.time) { // Only the worst loop of the period has its sections kept
+            record.timestamp = now;
+            record.time = time;
+            record.sectionCount = findTop(WORST_LOOP_SECTIONS, true);
+            for (int i = 0; i < record.sectionCount; i++) {
+                record.sections[i] = top[i].name;
+                record.sectionTimes[i] = top[i].loopTime / 1e9;
+            }
+        }
+        for (int i = 0; i < sections.size(); i++) sections.get(i).loopTime = 0;
+        if (now - lastPublishTime < PUBLISH_PERIOD) return;
+        lastPublishTime = now;
+        publish();
+        worstLoop = (worstLoop + 1) % WORST_LOOPS;
+        worstLoops[worstLoop].time = 0;
+    }
+
+    /** Find the sections that took the most time, in descending order, into {@link #top}. This doesn't allocate.
+     * @param count The maximum number of sections to find
+     * @param loop Whether to compare the time in the current loop, instead of the time in the current period
+     * @return The number of sections found, which only includes sections that took any time
+     */
+    private static int findTop(int count, boolean loop) {
+        int found = 0;
+        for (int i = 0; i < sections.size(); i++) {
+            final Section section = sections.get(i);
+            final long time = loop ? section.loopTime : section.periodTime;
+            if (time <= 0) continue;
+            int index = Math.min(found, count - 1);
+            if (
+                found == count &&
+                time <= (loop ? top[index].loopTime : top[index].periodTime)
+            ) continue;
+            while ( // Insertion sort, shifting faster sections down
+                index > 0 &&
+                time >
+                (loop ? top[index - 1].loopTime : top[index - 1].periodTime)
+            ) {
+                top[index] = top[index - 1];
+                index--;
+            }
+            top[index] = section;
+            if (found < count) found++;
+        }
+        return found;
+    }
+
+    /**
+     * Publish the top offenders of the last period, the loop time, and the worst recent loops, to SmartDashboard.
+     */
+    private static void publish() {
+        final int offenders = findTop(TOP_OFFENDERS, false);
+        final String[] topOffenders = new String[offenders];
+        for (int i = 0; i < offenders; i++) topOffenders[i] = String.format(
+            "%s: %.2f ms/s, p99 %.2f ms, max %.2f ms",
+            top[i].name,
+            top[i].periodTime / 1e6 / PUBLISH_PERIOD,
+            top[i].histogram.getPercentile(0.99) * 1000,
+            top[i].histogram.getMax() * 1000
+        );
+        SmartDashboard.putStringArray("Profiler/Top Offenders", topOffenders);
+        for (int i = 0; i < sections.size(); i++) sections.get(i).periodTime =
+            0;
+
+        SmartDashboard.putNumber(
+            "Profiler/Loop p50 (ms)",
+            loopTimes.getPercentile(0.5) * 1000
+        );
+        SmartDashboard.putNumber(
+            "Profiler/Loop p99 (ms)",
+            loopTimes.getPercentile(0.99) * 1000
+        );
+        SmartDashboard.putNumber(
+            "Profiler/Loop Max (ms)",
+            loopTimes.getMax() * 1000
+        );
+
+        final ArrayList<String> loops = new ArrayList<>(WORST_LOOPS);
+        for (int i = 0; i < WORST_LOOPS; i++) { // Newest first
+            final LoopRecord record =
+                worstLoops[(worstLoop - i + WORST_LOOPS) % WORST_LOOPS];
+            if (record.time <= 0) continue;
+            final StringBuilder builder = new StringBuilder(
+                String.format(
+                    "%.1f s: %.2f ms",
+                    record.timestamp,
+                    record.time * 1000
+                )
+            );
+            for (int section = 0; section < record.sectionCount; section++) {
+                builder.append(section == 0 ? " (" : ", ");
+                builder.append(
+                    String.format(
+                        "%s %.2f ms",
+                        record.sections[section],
+                        record.sectionTimes[section] * 1000
+                    )
+                );
+            }
+            if (record.sectionCount > 0) builder.append(")");
+            loops.add(builder.toString());
+        }
+        SmartDashboard.putStringArray(
+            "Profiler/Worst Loops",
+            loops.toArray(new String[0])
+        );
+    }
+}
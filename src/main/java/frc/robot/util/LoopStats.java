@@ -0,0 +1,106 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import java.util.HashMap;
+
+/**
+ * Timing & performance statistics for a named control loop (such as a PID), shared by every loop with the same name.
+ * Each loop's period (dt) distribution, maximum overrun past its expected period, fraction of saturated outputs, and
+ * time to settle are recorded into fixed-size {@link Histogram}s without allocating, and published to SmartDashboard
+ * (under "Loops/name/") at a low rate by {@link #publishAll()}.
+ */
+public class LoopStats {
+
+    static final double PUBLISH_PERIOD = 1; // Seconds between publishing the statistics
+    static final double MAX_DT = 0.1; // Upper bound of the dt histogram, in seconds
+    static final double MAX_SETTLE_TIME = 5; // Upper bound of the time to settle histogram, in seconds
+    static final int BINS = 100; // Number of bins in each histogram
+
+    private static final HashMap<String, LoopStats> stats = new HashMap<>();
+    private static double lastPublishTime = Double.NEGATIVE_INFINITY;
+
+    private final String name;
+    private final Histogram dt = new Histogram(0, MAX_DT, BINS), settleTime =
+        new Histogram(0, MAX_SETTLE_TIME, BINS);
+    private double maxOverrun = 0;
+    private long samples = 0, saturatedSamples = 0;
+
+    private LoopStats(String name) {
+        this.name = name;
+    }
+
+    /** Get the statistics for a named loop, creating them if they don't exist.
+     * @param name The name of the loop
+     * @return The statistics for the loop
+     */
+    public static LoopStats get(String name) {
+        synchronized (stats) {
+            return stats.computeIfAbsent(name, LoopStats::new);
+        }
+    }
+
+    /** Record one iteration of the loop.
+     * @param dt The time since the last iteration, in seconds (ignored if not positive, such as on the first iteration)
+     * @param expectedPeriod The period the loop is expected to run at, in seconds
+     * @param saturated Whether the output of this iteration was saturated
+     */
+    public synchronized void record(
+        double dt,
+        double expectedPeriod,
+        boolean saturated
+    ) {
+        if (dt <= 0) return;
+        this.dt.record(dt);
+        maxOverrun = Math.max(maxOverrun, dt - expectedPeriod);
+        samples++;
+        if (saturated) saturatedSamples++;
+    }
+
+    /** Record how long the loop took to settle (reach its target).
+     * @param seconds The time to settle, in seconds
+     */
+    public synchronized void recordSettle(double seconds) {
+        settleTime.record(seconds);
+    }
+
+    /**
+     * Publish the statistics of this loop to SmartDashboard.
+     */
+    private synchronized void publish() {
+        final String prefix = "Loops/" + name + "/";
+        SmartDashboard.putNumber(prefix + "Samples", samples);
+        SmartDashboard.putNumber(
+            prefix + "dt p50 (ms)",
+            dt.getPercentile(0.5) * 1000
+        );
+        SmartDashboard.putNumber(
+            prefix + "dt p99 (ms)",
+            dt.getPercentile(0.99) * 1000
+        );
+        SmartDashboard.putNumber(prefix + "dt Max (ms)", dt.getMax() * 1000);
+        SmartDashboard.putNumber(
+            prefix + "Max Overrun (ms)",
+            maxOverrun * 1000
+        );
+        SmartDashboard.putNumber(
+            prefix + "Saturated (%)",
+            samples == 0 ? 0 : saturatedSamples * 100.0 / samples
+        );
+        SmartDashboard.putNumber(
+            prefix + "Settle p50 (s)",
+            settleTime.getPercentile(0.5)
+        );
+        SmartDashboard.putNumber(prefix + "Settle Max (s)", settleTime.getMax());
+    }
+
+    /** Publish the statistics of every loop, at most once per {@link #PUBLISH_PERIOD}. Should be called every loop.
+     * @param now The current time, in seconds
+     */
+    public static void publishAll(double now) {
+        if (now - lastPublishTime < PUBLISH_PERIOD) return;
+        lastPublishTime = now;
+        synchronized (stats) {
+            for (LoopStats loopStats : stats.values()) loopStats.publish();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package frc.robot.util;
+
+/**
+ * A {@link Clock} that only moves when it's advanced, for running time-based code faster than real time.
+ */
+public class ManualClock implements Clock {
+
+    private double time;
+
+    /** Create a new ManualClock.
+     * @param time The starting time, in seconds
+     */
+    public ManualClock(double time) {
+        this.time = time;
+    }
+
+    @Override
+    public double now() {
+        return time;
+    }
+
+    /** Advance the clock.
+     * @param dt The time to advance by, in seconds
+     */
+    public void advance(double dt) {
+        time += dt;
+    }
+}
@@ -0,0 +1,86 @@
+package frc.robot.util;
+
+import frc.robot.util.GenericController.Signal;
+import frc.robot.util.TelemetryScheduler.Tier;
+
+/**
+ * Publishes the signals of a {@link GenericController} to SmartDashboard through the {@link TelemetryScheduler}, so each
+ * signal is read & published at a rate suited to it, through a publisher created once, when the subsystem is
+ * constructed.
+ * <p>
+ * Each signal is published under the name followed by the signal's label, e.g. "Climber Position".
+ */
+public final class MotorTelemetry {
+
+    private MotorTelemetry() {}
+
+    /** Publish signals of a motor controller, each at its default tier: positions & velocities every loop, currents at
+     * 5 Hz, and temperatures at 1 Hz.
+     * @param name The name to publish the signals under
+     * @param motor The motor controller to read the signals from
+     * @param signals The signals to publish, which should be consumed by the motor controller's telemetry profile
+     */
+    public static void add(
+        String name,
+        GenericController motor,
+        Signal... signals
+    ) {
+        for (Signal signal : signals) add(
+            name,
+            motor,
+            getDefaultTier(signal),
+            signal
+        );
+    }
+
+    /** Publish signals of a motor controller, all at the same tier.
+     * @param name The name to publish the signals under
+     * @param motor The motor controller to read the signals from
+     * @param tier How often to publish the signals
+     * @param signals The signals to publish, which should be consumed by the motor controller's telemetry profile
+     */
+    public static void add(
+        String name,
+        GenericController motor,
+        Tier tier,
+        Signal... signals
+    ) {
+        for (Signal signal : signals) TelemetryScheduler.add(
+            name + " " + getLabel(signal),
+            tier,
+            switch (signal) {
+                case POSITION -> motor::getPosition;
+                case VELOCITY -> motor::getVelocity;
+                case TEMPERATURE -> motor::getTemperature;
+                case SUPPLY_CURRENT -> motor::getSupplyCurrent;
+                case STATOR_CURRENT -> motor::getStatorCurrent;
+            }
+        );
+    }
+
+    /** Get the tier a signal is published at by default, based on how fast it changes.
+     * @param signal The signal
+     * @return The default tier of the signal
+     */
+    private static Tier getDefaultTier(Signal signal) {
+        return switch (signal) {
+            case POSITION, VELOCITY -> Tier.FAST;
+            case SUPPLY_CURRENT, STATOR_CURRENT -> Tier.NORMAL;
+            case TEMPERATURE -> Tier.SLOW;
+        };
+    }
+
+    /** Get the label a signal is published under.
+     * @param signal The signal
+     * @return The label of the signal
+     */
+    private static String getLabel(Signal signal) {
+        return switch (signal) {
+            case POSITION -> "Position";
+            case VELOCITY -> "Velocity";
+            case TEMPERATURE -> "Temperature";
+            case SUPPLY_CURRENT -> "Supply Current";
+            case STATOR_CURRENT -> "Stator Current";
+        };
+    }
+}
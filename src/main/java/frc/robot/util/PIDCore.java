@@ -0,0 +1,98 @@
+package frc.robot.util;
+
+/**
+ * The math of a PID controller, separate from the Command framework, so it can be reused by commands, Notifier loops,
+ * simulations, and tuning tools. It doesn't allocate, and reads time from an injectable {@link Clock}.
+ * <p>
+ * The integral term's accumulated error is limited to +/- iMax to prevent integral windup. On the first calculation
+ * after a reset, the derivative term is 0, as there's no previous error to compare against.
+ */
+public class PIDCore {
+
+    private final Clock clock;
+    private double errorSum = 0, lastTime = Double.NaN, lastError =
+        Double.NaN, lastDt = 0;
+
+    /** Create a new PIDCore.
+     * @param clock The clock to measure the time between calculations with
+     */
+    public PIDCore(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Reset the accumulated error and the previous error, such as when the controller starts being used again.
+     */
+    public void reset() {
+        errorSum = 0;
+        lastTime = Double.NaN;
+        lastError = Double.NaN;
+        lastDt = 0;
+    }
+
+    /** Get the time between the last two calculations.
+     * @return The time in seconds, or 0 if there's only been one calculation since the last reset
+     */
+    public double getLastDt() {
+        return lastDt;
+    }
+
+    /** Calculate the output, using the clock for the time since the last calculation.
+     * This changes the accumulated & previous error, so it should only be run once per loop.
+     * @param error The current error
+     * @param gains The gains to use
+     * @return The calculated output
+     */
+    public double calculate(double error, PIDGains gains) {
+        return calculate(error, gains.p, gains.i, gains.d, gains.iMax);
+    }
+
+    /** Calculate the output, using the clock for the time since the last calculation.
+     * This changes the accumulated & previous error, so it should only be run once per loop.
+     * @param error The current error
+     * @param p The P value
+     * @param i The I value
+     * @param d The D value
+     * @param iMax The I max value (the maximum value of the integral term)
+     * @return The calculated output
+     */
+    public double calculate(
+        double error,
+        double p,
+        double i,
+        double d,
+        double iMax
+    ) {
+        final double now = clock.now();
+        final double dt = Double.isNaN(lastTime) ? 0 : now - lastTime;
+        lastTime = now;
+        return calculate(error, dt, p, i, d, iMax);
+    }
+
+    /** Calculate the output, with an explicit time since the last calculation.
+     * This changes the accumulated & previous error, so it should only be run once per loop.
+     * @param error The current error
+     * @param dt The time since the last calculation, in seconds
+     * @param p The P value
+     * @param i The I value
+     * @param d The D value
+     * @param iMax The I max value (the maximum value of the integral term)
+     * @return The calculated output
+     */
+    public double calculate(
+        double error,
+        double dt,
+        double p,
+        double i,
+        double d,
+        double iMax
+    ) {
+        final double errorRate = Double.isNaN(lastError) || dt <= 0
+            ? 0
+            : (error - lastError) / dt;
+        errorSum = Math.max(-iMax, Math.min(iMax, errorSum + error * dt));
+        lastError = error;
+        lastDt = dt;
+        return error * p + errorSum * i + errorRate * d;
+    }
+}
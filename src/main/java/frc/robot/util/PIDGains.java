@@ -0,0 +1,39 @@
+package frc.robot.util;
+
+/**
+ * An immutable snapshot of a set of PID gains. Each snapshot from a {@link DynamicPIDGains} has a higher version than
+ * the one before it, so users can cheaply check whether the gains have changed.
+ */
+public final class PIDGains {
+
+    public final double p, i, d, iMax;
+    public final long version;
+
+    /** Create a new PIDGains snapshot.
+     * @param p The P value
+     * @param i The I value
+     * @param d The D value
+     * @param iMax The I max value (the maximum value of the integral term)
+     * @param version The version of the snapshot
+     */
+    public PIDGains(double p, double i, double d, double iMax, long version) {
+        this.p = p;
+        this.i = i;
+        this.d = d;
+        this.iMax = iMax;
+        this.version = version;
+    }
+
+    /** Check whether the gains of this snapshot are the same as the given gains, ignoring the version.
+     * @param p The P value
+     * @param i The I value
+     * @param d The D value
+     * @param iMax The I max value
+     * @return Whether the gains are the same
+     */
+    public boolean equals(double p, double i, double d, double iMax) {
+        return (
+            this.p == p && this.i == i && this.d == d && this.iMax == iMax
+        );
+    }
+}
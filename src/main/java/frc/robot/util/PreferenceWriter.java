@@ -0,0 +1,83 @@
+package frc.robot.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A write-behind layer for RobotPreferences. Values are updated in memory immediately by their owners (such as
+ * {@link DynamicPrimitive}), while the writes to RobotPreferences are queued, coalesced per key (only the latest write to a
+ * key is kept), and sent together off the main thread once {@link #FLUSH_DELAY_MS} has passed since the first queued
+ * write. This prevents tuning sessions, or values reset on every boot, from causing a persistent write per change.
+ * <p>
+ * {@link #flush()} should be called whenever pending writes must not be lost, such as when the robot is disabled.
+ */
+public final class PreferenceWriter {
+
+    static final long FLUSH_DELAY_MS = 1000; // Time from the first queued write until the queue is flushed
+
+    private static final LinkedHashMap<String, Runnable> pending = new LinkedHashMap<>();
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+            Thread thread = new Thread(runnable, "PreferenceWriter");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+    private static ScheduledFuture<?> scheduledFlush = null;
+
+    private PreferenceWriter() {}
+
+    /** Queue a write to RobotPreferences, replacing any write to the same key that's still pending.
+     * @param key The RobotPreferences key being written
+     * @param write The write to run when the queue is flushed
+     */
+    public static void write(String key, Runnable write) {
+        synchronized (pending) {
+            pending.put(key, write);
+            if (scheduledFlush == null) scheduledFlush =
+                executor.schedule(
+                    PreferenceWriter::flush,
+                    FLUSH_DELAY_MS,
+                    TimeUnit.MILLISECONDS
+                );
+        }
+    }
+
+    /** Drop the pending write to a key, if there is one. Used when a key is removed.
+     * @param key The RobotPreferences key
+     */
+    public static void cancel(String key) {
+        synchronized (pending) {
+            pending.remove(key);
+        }
+    }
+
+    /**
+     * Run every pending write now, on the calling thread.
+     */
+    public static void flush() {
+        synchronized (pending) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            for (Map.Entry<String, Runnable> entry : pending.entrySet()) {
+                try {
+                    entry.getValue().run();
+                } catch (RuntimeException e) {
+                    System.out.println(
+                        "ERROR: Failed to write RobotPreferences key " +
+                        entry.getKey() +
+                        ": " +
+                        e.getMessage()
+                    );
+                }
+            }
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package frc.robot.util;
+
+import frc.robot.util.GenericController.ControlMode;
+
+/**
+ * An in-memory model of a motor & motor controller, used by the {@link GenericController.BaseController#SIM} backend.
+ * This makes no hardware or JNI calls, so subsystems can be run off-robot at far more iterations per second than real
+ * time, to profile and regression test them.
+ * <p>
+ * The model is a first-order DC motor (roughly a brushless FRC motor with no load): velocity approaches the output's
+ * share of the free speed, current is proportional to the difference between the commanded and actual velocity, and
+ * temperature rises with the square of current while cooling towards ambient. Closed-loop control runs on every step,
+ * using the same {@link PIDCore} (and gain units) as {@link frc.robot.commands.GenericPID}.
+ * <p>
+ * Position is in rotations, and velocity in rotations per second.
+ */
+public class SimulatedMotor {
+
+    static final double FREE_SPEED = 100; // Rotations per second at full output
+    static final double TIME_CONSTANT = 0.05; // Seconds for the velocity to get ~63% of the way to its target
+    static final double STALL_CURRENT = 200; // Amperes at full output while stalled
+    static final double AMBIENT_TEMPERATURE = 25; // Degrees Celsius
+    static final double HEATING = 0.0005; // Degrees Celsius per second, per ampere squared
+    static final double COOLING = 0.01; // Fraction of the difference from ambient lost per second
+
+    final int id;
+    boolean inverted = false, brake = true;
+    double output = 0, position = 0, velocity = 0, statorCurrent = 0, supplyCurrent =
+        0, temperature = AMBIENT_TEMPERATURE;
+    private ControlMode mode = ControlMode.PERCENT;
+    private final PIDCore pid = new PIDCore(() -> 0); // Only used with explicit time steps
+    private double target = 0, p = 0, i = 0, d = 0, iMax = 0;
+
+    /** Create a new SimulatedMotor.
+     * @param id The ID of the simulated motor controller
+     */
+    SimulatedMotor(int id) {
+        this.id = id;
+    }
+
+    /** Set the motor's output using a specific control mode.
+     * @param mode The control mode to use
+     * @param value The output (-1 to 1), position, or velocity to set, depending on the control mode
+     */
+    void set(ControlMode mode, double value) {
+        if (mode != this.mode) pid.reset();
+        this.mode = mode;
+        if (mode == ControlMode.PERCENT) output =
+            Math.max(-1, Math.min(1, value)); else target = value;
+    }
+
+    /** Configure the gains used by the closed-loop control modes.
+     * @param p The proportional gain
+     * @param i The integral gain
+     * @param d The derivative gain
+     * @param iMax The maximum value of the integral term's accumulated error
+     */
+    void setPID(double p, double i, double d, double iMax) {
+        this.p = p;
+        this.i = i;
+        this.d = d;
+        this.iMax = iMax;
+    }
+
+    /** Advance the model by a period of time.
+     * @param dt The time to advance by, in seconds
+     */
+    void step(double dt) {
+        if (mode != ControlMode.PERCENT) {
+            final double error =
+                target - (mode == ControlMode.POSITION ? position : velocity);
+            output =
+                Math.max(
+                    -1,
+                    Math.min(1, pid.calculate(error, dt, p, i, d, iMax))
+                );
+        }
+        // Coasting motors have no back-EMF braking, so they slow down much more gradually
+        final double timeConstant = output == 0 && !brake
+            ? TIME_CONSTANT * 10
+            : TIME_CONSTANT;
+        velocity +=
+            (output * FREE_SPEED - velocity) *
+            Math.min(1, dt / timeConstant);
+        position += velocity * dt;
+        statorCurrent =
+            Math.abs(output - velocity / FREE_SPEED) * STALL_CURRENT;
+        supplyCurrent = statorCurrent * Math.abs(output);
+        temperature +=
+            (
+                statorCurrent * statorCurrent * HEATING -
+                (temperature - AMBIENT_TEMPERATURE) * COOLING
+            ) *
+            dt;
+    }
+}
@@ -0,0 +1,145 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs robot startup work, timing each piece of it. Independent work (such as configuring a motor controller over CAN)
+ * can be submitted to a bounded pool of worker threads to run concurrently, while work that must stay on the main
+ * thread (such as constructing subsystems, which register themselves with the CommandScheduler) can be timed in place.
+ * <p>
+ * Once everything has been started, {@link #join()} waits for all submitted work, and publishes how long each piece
+ * took to SmartDashboard (under "Startup/") and the console, so slow devices can be found.
+ */
+public class StartupOrchestrator {
+
+    private static class Timing {
+
+        final String name;
+        final double seconds;
+
+        Timing(String name, double seconds) {
+            this.name = name;
+            this.seconds = seconds;
+        }
+    }
+
+    private final ExecutorService pool;
+    private final ArrayList<Future<?>> pending = new ArrayList<>();
+    private final ArrayList<Timing> timings = new ArrayList<>();
+    private final long startTime = System.nanoTime();
+
+    /** Create a new StartupOrchestrator.
+     * @param threads The maximum number of worker threads to run submitted work on
+     */
+    public StartupOrchestrator(int threads) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        pool =
+            Executors.newFixedThreadPool(
+                threads,
+                runnable -> {
+                    Thread thread = new Thread(
+                        runnable,
+                        "Startup-" + threadCount.incrementAndGet()
+                    );
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+    }
+
+    /** Run a piece of startup work on the calling thread, and record how long it took.
+     * @param name The name to report the time under
+     * @param work The work to run
+     * @return The result of the work
+     */
+    public <T> T time(String name, Supplier<T> work) {
+        final long start = System.nanoTime();
+        final T result = work.get();
+        record(name, System.nanoTime() - start);
+        return result;
+    }
+
+    /** Submit a piece of startup work to run on a worker thread, and record how long it took.
+     * The work must be independent of any other work that is running concurrently.
+     * @param name The name to report the time under
+     * @param work The work to run
+     */
+    public void submit(String name, Runnable work) {
+        pending.add(
+            pool.submit(() -> {
+                final long start = System.nanoTime();
+                work.run();
+                record(name, System.nanoTime() - start);
+            })
+        );
+    }
+
+    /**
+     * Wait for all submitted work to finish, shut down the worker threads, and publish the startup timing report.
+     */
+    public void join() {
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                System.out.println(
+                    "ERROR: Startup work failed: " + e.getCause()
+                );
+                e.getCause().printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.out.println(
+                    "ERROR: Interrupted while waiting for startup work."
+                );
+                break;
+            }
+        }
+        pending.clear();
+        pool.shutdown();
+        publish();
+    }
+
+    /** Record the time a piece of startup work took.
+     * @param name The name of the work
+     * @param nanos How long the work took, in nanoseconds
+     */
+    private void record(String name, long nanos) {
+        synchronized (timings) {
+            timings.add(new Timing(name, nanos / 1e9));
+        }
+    }
+
+    /**
+     * Publish the startup timing report, slowest first.
+     */
+    private void publish() {
+        final double total = (System.nanoTime() - startTime) / 1e9;
+        synchronized (timings) {
+            timings.sort(
+                Comparator.comparingDouble((Timing timing) -> timing.seconds)
+                    .reversed()
+            );
+            for (Timing timing : timings) {
+                SmartDashboard.putNumber(
+                    "Startup/" + timing.name + " (ms)",
+                    timing.seconds * 1000
+                );
+                System.out.printf(
+                    "[Startup] %s took %.1f ms%n",
+                    timing.name,
+                    timing.seconds * 1000
+                );
+            }
+        }
+        SmartDashboard.putNumber("Startup/Total (ms)", total * 1000);
+        System.out.printf("[Startup] Total: %.1f ms%n", total * 1000);
+    }
+}
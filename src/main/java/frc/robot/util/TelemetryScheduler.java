@@ -0,0 +1,175 @@
+package frc.robot.util;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.RawSubscriber;
+import java.util.ArrayList;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Publishes SmartDashboard numbers at a rate set per value, instead of every loop. Each value is registered once with a
+ * {@link Tier}, and {@link #run()} reads & publishes the values that are due, through publishers created on
+ * registration.
+ * <p>
+ * The values of the slower tiers are spread evenly over the loops of their period (each value is given the phase with
+ * the fewest values), so no single loop reads & publishes all of them at once. On-demand values are only read &
+ * published while a dashboard is subscribed to them, which is checked once a second through the NetworkTables
+ * "$sub$" meta topic of each value.
+ * <p>
+ * Values should be registered & run from the main robot thread.
+ */
+public final class TelemetryScheduler {
+
+    /**
+     * How often a value is published, assuming the robot loop runs at its default 50 Hz.
+     */
+    public enum Tier {
+        FAST(1), // 50 Hz, for values used for control or driving, such as positions
+        NORMAL(10), // 5 Hz, for values that change over seconds, such as currents
+        SLOW(50), // 1 Hz, for values that change over tens of seconds, such as temperatures
+        ON_DEMAND(1); // 50 Hz, but only while a dashboard is subscribed, for debugging values
+
+        final int period; // Number of loops between publishes
+
+        Tier(int period) {
+            this.period = period;
+        }
+    }
+
+    static final int SUBSCRIPTION_CHECK_PERIOD = 50; // Number of loops between checking each on-demand value's subscribers
+
+    /**
+     * A registered value.
+     */
+    private static final class Entry {
+
+        final DoublePublisher publisher;
+        final DoubleSupplier value;
+        final RawSubscriber subscribers; // Subscribers of the value's topic, only for on-demand values
+        boolean subscribed = false;
+
+        Entry(
+            DoublePublisher publisher,
+            DoubleSupplier value,
+            RawSubscriber subscribers
+        ) {
+            this.publisher = publisher;
+            this.value = value;
+            this.subscribers = subscribers;
+        }
+    }
+
+    private static final ArrayList<Entry> fast = new ArrayList<>(), onDemand =
+        new ArrayList<>();
+    private static final ArrayList<ArrayList<Entry>> normal = createPhases(
+        Tier.NORMAL.period
+    ), slow = createPhases(Tier.SLOW.period), subscriptionChecks =
+        createPhases(SUBSCRIPTION_CHECK_PERIOD);
+    private static long loop = 0;
+
+    private TelemetryScheduler() {}
+
+    /** Create the lists of values to run on each phase of a period.
+     * @param period The number of loops in the period
+     * @return A list of values for each phase
+     */
+    private static ArrayList<ArrayList<Entry>> createPhases(int period) {
+        final ArrayList<ArrayList<Entry>> phases = new ArrayList<>(period);
+        for (int phase = 0; phase < period; phase++) phases.add(
+            new ArrayList<>()
+        );
+        return phases;
+    }
+
+    /** Add a value to the phase with the fewest values.
+     * @param phases The lists of values for each phase
+     * @param entry The value to add
+     */
+    private static void addToPhase(
+        ArrayList<ArrayList<Entry>> phases,
+        Entry entry
+    ) {
+        ArrayList<Entry> emptiest = phases.get(0);
+        for (ArrayList<Entry> phase : phases) if (
+            phase.size() < emptiest.size()
+        ) emptiest = phase;
+        emptiest.add(entry);
+    }
+
+    /** Create a publisher for a SmartDashboard number.
+     * @param key The SmartDashboard key
+     * @return The publisher
+     */
+    public static DoublePublisher publisher(String key) {
+        return NetworkTableInstance
+            .getDefault()
+            .getTable("SmartDashboard")
+            .getDoubleTopic(key)
+            .publish();
+    }
+
+    /** Register a value to be published to SmartDashboard.
+     * @param key The SmartDashboard key
+     * @param tier How often to publish the value
+     * @param value A function that returns the value, called when it's published
+     */
+    public static void add(String key, Tier tier, DoubleSupplier value) {
+        final DoublePublisher publisher = publisher(key);
+        switch (tier) {
+            case FAST -> fast.add(new Entry(publisher, value, null));
+            case NORMAL -> addToPhase(
+                normal,
+                new Entry(publisher, value, null)
+            );
+            case SLOW -> addToPhase(slow, new Entry(publisher, value, null));
+            case ON_DEMAND -> {
+                final Entry entry = new Entry(
+                    publisher,
+                    value,
+                    NetworkTableInstance
+                        .getDefault()
+                        .getRawTopic("$sub$" + publisher.getTopic().getName())
+                        .subscribe("msgpack", new byte[0])
+                );
+                onDemand.add(entry);
+                addToPhase(subscriptionChecks, entry);
+            }
+        }
+    }
+
+    /**
+     * Publish every value that's due on this loop. This should be run once per loop.
+     */
+    public static void run() {
+        publish(fast);
+        publish(normal.get((int) (loop % Tier.NORMAL.period)));
+        publish(slow.get((int) (loop % Tier.SLOW.period)));
+        final ArrayList<Entry> checks = subscriptionChecks.get(
+            (int) (loop % SUBSCRIPTION_CHECK_PERIOD)
+        );
+        for (int i = 0; i < checks.size(); i++) {
+            final Entry entry = checks.get(i);
+            final byte[] subscribers = entry.subscribers.get();
+            // The meta topic's value is a MessagePack array of subscribers, and 0x90 is an empty array
+            entry.subscribed =
+                subscribers.length > 0 && (subscribers[0] & 0xff) != 0x90;
+        }
+        for (int i = 0; i < onDemand.size(); i++) {
+            final Entry entry = onDemand.get(i);
+            if (entry.subscribed) entry.publisher.set(
+                entry.value.getAsDouble()
+            );
+        }
+        loop++;
+    }
+
+    /** Read & publish a list of values.
+     * @param entries The values to publish
+     */
+    private static void publish(ArrayList<Entry> entries) {
+        for (int i = 0; i < entries.size(); i++) {
+            final Entry entry = entries.get(i);
+            entry.publisher.set(entry.value.getAsDouble());
+        }
+    }
+}
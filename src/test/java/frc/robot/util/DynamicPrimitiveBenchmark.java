@@ -0,0 +1,99 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.wpilibj.Preferences;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the cost of reading a dynamic value through RobotPreferences, before & after the accessors were resolved
+ * once and cached: the original DynamicValue&lt;T&gt;.get() (checking the key, then picking the Preferences getter by
+ * type, on every call) against {@link DynamicDouble#getAsDouble()}.
+ * <p>
+ * The times are printed, so they can be compared between changes. The only assertion is that the cached read is
+ * faster, which holds by a wide margin, as the baseline goes through NetworkTables on every call.
+ */
+class DynamicPrimitiveBenchmark {
+
+    static final int WARMUP_ITERATIONS = 100_000; // Calls before timing, so both paths are JIT-compiled
+    static final int ITERATIONS = 1_000_000; // Timed calls of each accessor
+
+    /**
+     * The read path of DynamicValue&lt;T&gt; before it was cached, kept here as the baseline to measure against.
+     */
+    private static final class BaselineDynamicValue<T> {
+
+        private final String key;
+        private final T value;
+        private final Class<T> type;
+
+        @SuppressWarnings("unchecked")
+        BaselineDynamicValue(String key, T defaultValue) {
+            this.type = (Class<T>) defaultValue.getClass();
+            this.key = key;
+            this.value = defaultValue;
+        }
+
+        T get() {
+            if (!Preferences.containsKey(key)) throw new IllegalStateException(
+                "DynamicValue key " + key + " does not exist."
+            ); else if (type.equals(Boolean.class)) return type.cast(
+                Preferences.getBoolean(key, (Boolean) this.value)
+            ); else if (type.equals(Double.class)) return type.cast(
+                Preferences.getDouble(key, (Double) this.value)
+            ); else if (type.equals(Float.class)) return type.cast(
+                Preferences.getFloat(key, (Float) this.value)
+            ); else if (type.equals(Integer.class)) return type.cast(
+                Preferences.getInt(key, (Integer) this.value)
+            ); else if (type.equals(Long.class)) return type.cast(
+                Preferences.getLong(key, (Long) this.value)
+            ); else if (type.equals(String.class)) return type.cast(
+                Preferences.getString(key, (String) this.value)
+            ); else throw new IllegalArgumentException(
+                "DynamicValue does not support type " + type.getName()
+            );
+        }
+    }
+
+    @AfterEach
+    void flush() {
+        PreferenceWriter.flush();
+    }
+
+    @Test
+    void cachedReadIsFasterThanBaseline() {
+        final DynamicDouble after = new DynamicDouble(
+            "DynamicPrimitiveBenchmark",
+            1
+        );
+        final BaselineDynamicValue<Double> before = new BaselineDynamicValue<>(
+            "DynamicPrimitiveBenchmark",
+            1.0
+        );
+        double sink = 0; // Consumed at the end, so the reads can't be optimized away
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += before.get();
+            sink += after.getAsDouble();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) sink += before.get();
+        final double beforeTime =
+            (System.nanoTime() - start) / (double) ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) sink += after.getAsDouble();
+        final double afterTime =
+            (System.nanoTime() - start) / (double) ITERATIONS;
+
+        System.out.printf(
+            "Dynamic value get(): before %.2f ns/op, after %.2f ns/op (%.0fx)%n",
+            beforeTime,
+            afterTime,
+            beforeTime / afterTime
+        );
+        assertTrue(sink > 0);
+        assertTrue(afterTime < beforeTime);
+    }
+}
@@ -0,0 +1,87 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that values sharing a RobotPreferences key are all registered, so one of them going back to a variable doesn't
+ * unregister the key for the others.
+ */
+class DynamicValueRegistryTest {
+
+    @AfterEach
+    void flush() {
+        PreferenceWriter.flush();
+    }
+
+    @Test
+    void sharedKeyStaysRegisteredUntilEveryValueIsUnregistered() {
+        final DynamicDouble first = new DynamicDouble(
+            "DynamicValueRegistryTestShared",
+            1
+        );
+        final DynamicDouble second = new DynamicDouble(
+            "DynamicValueRegistryTestShared",
+            1
+        );
+        assertEquals(1, count("DynamicValueRegistryTestShared"));
+
+        first.toVariable();
+        assertEquals(1, count("DynamicValueRegistryTestShared"));
+        second.set(2);
+        assertEquals( // The remaining value's, not the variable's
+            2,
+            (double) find("DynamicValueRegistryTestShared").get()
+        );
+
+        second.toVariable();
+        assertEquals(0, count("DynamicValueRegistryTestShared"));
+    }
+
+    @Test
+    void unregisteringTwiceKeepsOtherValues() {
+        final DynamicDouble value = new DynamicDouble(
+            "DynamicValueRegistryTestTwice",
+            1
+        );
+        final DynamicValueRegistry.Entry stale = DynamicValueRegistry.register(
+            "DynamicValueRegistryTestTwice",
+            double.class,
+            1.0,
+            () -> 1.0,
+            text -> {}
+        );
+        DynamicValueRegistry.unregister(stale);
+        DynamicValueRegistry.unregister(stale);
+        assertEquals(1, count("DynamicValueRegistryTestTwice"));
+        value.toVariable();
+        assertEquals(0, count("DynamicValueRegistryTestTwice"));
+    }
+
+    /** Count the registered entries for a key, as included by getEntries().
+     * @param key The key
+     * @return The number of entries
+     */
+    private static long count(String key) {
+        return DynamicValueRegistry
+            .getEntries()
+            .stream()
+            .filter(entry -> entry.key.equals(key))
+            .count();
+    }
+
+    /** Find the registered entry for a key.
+     * @param key The key
+     * @return The entry
+     */
+    private static DynamicValueRegistry.Entry find(String key) {
+        return DynamicValueRegistry
+            .getEntries()
+            .stream()
+            .filter(entry -> entry.key.equals(key))
+            .findFirst()
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,71 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.wpilibj.Preferences;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a RobotPreferences listener event arriving while a write is still queued in the {@link PreferenceWriter}
+ * doesn't revert the new value to the old one still held by RobotPreferences.
+ */
+class PreferenceWriterTest {
+
+    @AfterEach
+    void flush() {
+        PreferenceWriter.flush();
+    }
+
+    @Test
+    void primitiveKeepsSetValueWhileWritePending() {
+        final DynamicDouble value = new DynamicDouble(
+            "PreferenceWriterTestDouble",
+            1
+        );
+        value.set(2);
+        assertEquals(1, Preferences.getDouble("PreferenceWriterTestDouble", 0)); // Not written yet
+        value.onPrefValueChanged(); // e.g. the dashboard echo, or an import, before the flush
+        assertEquals(2, value.getAsDouble());
+
+        PreferenceWriter.flush();
+        assertEquals(2, Preferences.getDouble("PreferenceWriterTestDouble", 0));
+        value.onPrefValueChanged();
+        assertEquals(2, value.getAsDouble());
+    }
+
+    @Test
+    void primitiveReadsChangesOnceWritten() {
+        final DynamicDouble value = new DynamicDouble(
+            "PreferenceWriterTestExternal",
+            1
+        );
+        Preferences.setDouble("PreferenceWriterTestExternal", 3);
+        value.onPrefValueChanged();
+        assertEquals(3, value.getAsDouble());
+    }
+
+    @Test
+    void gainsKeepSetValuesWhileWritePending() {
+        final DynamicPIDGains gains = new DynamicPIDGains(
+            "PreferenceWriterTest",
+            1,
+            0,
+            0,
+            0
+        );
+        gains.set(2, 0.5, 0.25, 1);
+        final PIDGains set = gains.get();
+        gains.refresh(); // e.g. the listener of another of the four keys, before the flush
+        assertTrue(gains.get().equals(2, 0.5, 0.25, 1));
+        assertEquals(set.version, gains.get().version);
+
+        PreferenceWriter.flush();
+        assertEquals(2, Preferences.getDouble("PreferenceWriterTestP", 0));
+        assertEquals(1, Preferences.getDouble("PreferenceWriterTestIMax", 0));
+        gains.refresh();
+        assertTrue(gains.get().equals(2, 0.5, 0.25, 1));
+        assertEquals(set.version, gains.get().version);
+    }
+}